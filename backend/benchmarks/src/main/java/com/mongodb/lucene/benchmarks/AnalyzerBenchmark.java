@@ -0,0 +1,83 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.mongodb.lucene.service.AnalyzerLease;
+import com.mongodb.lucene.service.PredefinedAnalyzerRegistry;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizes texts with the predefined analyzers, exactly as they are served by the registry.
+ * {@link BenchmarkRunner} fills in the analyzer parameter from the analyzer catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+    @Param({"lucene.standard"})
+    public String analyzer;
+
+    @Param({"en", "de", "fr", "ru", "ar", "zh"})
+    public String language;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private PredefinedAnalyzerRegistry registry;
+    private AnalyzerLease lease;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new PredefinedAnalyzerRegistry();
+        lease = registry.acquire(analyzer);
+        text = BenchmarkTexts.text(language, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lease.close();
+        registry.close();
+    }
+
+    @Benchmark
+    public int tokenize(TokenCounter counter) throws IOException {
+        int count = consume(lease.getAnalyzer(), text);
+        counter.tokens += count;
+        return count;
+    }
+
+    /**
+     * Run a text through an analyzer, returning the token count so the work cannot be eliminated.
+     */
+    static int consume(Analyzer analyzer, String text) throws IOException {
+        int count = 0;
+        try (TokenStream stream = analyzer.tokenStream(BenchmarkTexts.FIELD, text)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                count++;
+            }
+            stream.end();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.mongodb.lucene.model.AutocompleteConfig;
+import com.mongodb.lucene.model.TokenInfo;
+import com.mongodb.lucene.service.AnalyzerLease;
+import com.mongodb.lucene.service.AnalyzerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The autocomplete path of {@link AnalyzerService#analyzeText}, including token collection and
+ * de-duplication, with the result cache disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    @Param({"edgeGram", "nGram"})
+    public String autocompleteType;
+
+    @Param({"index", "query"})
+    public String side;
+
+    @Param({"lucene.standard"})
+    public String baseAnalyzer;
+
+    @Param({"en", "de", "fr", "ru", "ar", "zh"})
+    public String language;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private AnalyzerService analyzerService;
+    private AnalyzerLease lease;
+    private AutocompleteConfig config;
+    private boolean query;
+    private String text;
+    private int tokensPerOperation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        analyzerService = context.getBean(AnalyzerService.class);
+        lease = analyzerService.acquireAnalyzer(baseAnalyzer, null);
+        config = new AutocompleteConfig(autocompleteType, 2, 15);
+        query = "query".equals(side);
+        text = BenchmarkTexts.text(language, size);
+        // analyzeText de-duplicates, so count the tokens produced rather than those returned
+        tokensPerOperation = analyzerService.analyzeTokens(lease, text, query, true, config).getTokens().size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lease.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Set<TokenInfo> analyzeText(TokenCounter counter) throws IOException {
+        counter.tokens += tokensPerOperation;
+        return analyzerService.analyzeText(lease, text, query, true, config);
+    }
+}
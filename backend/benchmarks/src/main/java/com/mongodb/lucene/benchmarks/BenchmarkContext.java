@@ -0,0 +1,31 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.mongodb.lucene.LuceneAnalyzerApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application without a web server for benchmarks that go through its services.
+ * The analysis result cache is disabled so every operation really tokenizes its text, and the
+ * startup warm-up and the registered analyzer store are off: JMH does its own warm-up.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(LuceneAnalyzerApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .properties(
+                "analyzer.result-cache.max-weight=0",
+                "analyzer.warmup.enabled=false",
+                "analyzer.custom-registry.store-path=",
+                "logging.level.root=WARN"
+            )
+            .run();
+    }
+}
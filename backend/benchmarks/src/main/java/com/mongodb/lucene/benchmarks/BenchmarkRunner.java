@@ -0,0 +1,120 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.lucene.model.AnalyzerDetail;
+import com.mongodb.lucene.service.AnalyzerService;
+import com.mongodb.lucene.service.CustomAnalyzerRegistry;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC profiler and writes two machine-readable files:
+ * {@code target/jmh-result.json}, the standard JMH JSON results, and
+ * {@code target/jmh-per-token.json}, one entry per benchmark and parameter set with time and
+ * allocation per token. Accepts the usual JMH command line options, which take precedence.
+ * Unless given with {@code -p}, the analyzer and component parameters cover every predefined
+ * analyzer and every custom analyzer component.
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_FILE = "target/jmh-result.json";
+    private static final String PER_TOKEN_FILE = "target/jmh-per-token.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+        }
+        if (!commandLine.getParameter("analyzer").hasValue()) {
+            options.param("analyzer", predefinedAnalyzers());
+        }
+        if (!commandLine.getParameter("component").hasValue()) {
+            options.param("component", ComponentBenchmark.components().toArray(new String[0]));
+        }
+        if (commandLine.getProfilers().stream().noneMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        writePerToken(results);
+    }
+
+    /**
+     * Every enabled predefined analyzer in the catalog served by the API. The catalog comes from
+     * the application's own service, so the context is started just long enough to read it.
+     */
+    private static String[] predefinedAnalyzers() {
+        try (ConfigurableApplicationContext context = BenchmarkContext.start()) {
+            return context.getBean(AnalyzerService.class).getAvailableAnalyzers().stream()
+                .filter(detail -> !detail.isDisabled())
+                .filter(detail -> !detail.getName().startsWith(CustomAnalyzerRegistry.NAME_PREFIX))
+                .map(AnalyzerDetail::getName)
+                .toArray(String[]::new);
+        }
+    }
+
+    private static void writePerToken(Collection<RunResult> results) throws Exception {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            Map<String, String> benchmarkParams = new LinkedHashMap<>();
+            for (String key : params.getParamsKeys()) {
+                benchmarkParams.put(key, params.getParam(key));
+            }
+
+            double nsPerOperation = result.getPrimaryResult().getScore();
+            Map<String, Result> secondary = result.getSecondaryResults();
+            Result tokens = secondary.get("tokens");
+            Result allocation = secondary.containsKey("gc.alloc.rate.norm")
+                ? secondary.get("gc.alloc.rate.norm")
+                : secondary.get("·gc.alloc.rate.norm");
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("benchmark", params.getBenchmark());
+            entry.put("params", benchmarkParams);
+            entry.put("nsPerOperation", nsPerOperation);
+            if (tokens != null && tokens.getScore() > 0) {
+                // The token counter is normalized like the primary result: ns per token
+                double nsPerToken = tokens.getScore();
+                entry.put("tokensPerOperation", nsPerOperation / nsPerToken);
+                entry.put("nsPerToken", nsPerToken);
+                if (allocation != null) {
+                    entry.put("bytesPerToken", allocation.getScore() * nsPerToken / nsPerOperation);
+                }
+            }
+            if (allocation != null) {
+                entry.put("bytesPerOperation", allocation.getScore());
+            }
+            entries.add(entry);
+        }
+
+        File output = new File(PER_TOKEN_FILE);
+        output.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, entries);
+        System.out.println("Per-token results written to " + output.getAbsolutePath());
+    }
+}
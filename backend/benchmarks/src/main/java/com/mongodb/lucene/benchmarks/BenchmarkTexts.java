@@ -0,0 +1,53 @@
+package com.mongodb.lucene.benchmarks;
+
+import java.util.Map;
+
+/**
+ * Sample texts in several languages and scripts, cut to a requested size.
+ * Texts are built by repeating a short passage, so every run measures exactly the same input.
+ */
+final class BenchmarkTexts {
+
+    static final String FIELD = "text";
+
+    private static final Map<String, String> PASSAGES = Map.of(
+        "en", "The quick brown fox jumps over the lazy dog while the children's voices echo through "
+            + "the valley. Running, jumping and swimming are popular activities in summer; visit "
+            + "https://example.com or write to info@example.com for the 2024 schedule. ",
+        "de", "Die Donaudampfschifffahrtsgesellschaft veröffentlichte gestern ihre Jahresberichte. "
+            + "Größere Häuser benötigen mehr Heizöl, während kleine Wohnungen im Stadtzentrum "
+            + "schnell vermietet werden. Übermorgen beginnen die Sommerferien. ",
+        "fr", "Les enfants jouaient dans le jardin pendant que leurs parents préparaient le dîner. "
+            + "L'été dernier, nous sommes allés à la mer et nous avons mangé des crêpes délicieuses "
+            + "près du phare. Où êtes-vous né ? ",
+        "ru", "Быстрая коричневая лиса прыгает через ленивую собаку. Вчера вечером мы гуляли по "
+            + "набережной и разговаривали о книгах, которые прочитали летом. Москва — столица "
+            + "России. ",
+        "ar", "يعتبر التعليم من أهم ركائز تقدم المجتمعات، حيث يساهم في بناء الإنسان وتنمية قدراته. "
+            + "وقد شهدت المدارس والجامعات في السنوات الأخيرة تطورا كبيرا في استخدام التقنيات الحديثة. ",
+        "zh", "今天天气很好，我们一起去公园散步吧。中华人民共和国成立于一九四九年，首都是北京。"
+            + "学习中文需要耐心和坚持，每天练习写字和阅读会有很大的帮助。"
+    );
+
+    private BenchmarkTexts() {}
+
+    /**
+     * A text of the given length in characters.
+     */
+    static String text(String language, int size) {
+        String passage = PASSAGES.get(language);
+        if (passage == null) {
+            throw new IllegalArgumentException("No sample text for language: " + language);
+        }
+        StringBuilder text = new StringBuilder(size + passage.length());
+        while (text.length() < size) {
+            text.append(passage);
+        }
+        int end = size;
+        // Never split a surrogate pair
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -0,0 +1,124 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.model.custom.CharFilterDefinition;
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import com.mongodb.lucene.model.custom.TokenFilterDefinition;
+import com.mongodb.lucene.model.custom.TokenizerDefinition;
+import com.mongodb.lucene.service.CustomAnalyzerFactory;
+import org.apache.lucene.analysis.Analyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizes texts with one custom analyzer component at a time. Char filters and token filters run
+ * with the standard tokenizer, so subtract the {@code tokenizer.standard} result to isolate them.
+ * {@link BenchmarkRunner} fills in the component parameter with every type the custom analyzer
+ * definitions accept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ComponentBenchmark {
+
+    private static final String STANDARD_TOKENIZER = "{\"type\": \"standard\"}";
+
+    // Settings for components that cannot be built from their type alone, keyed by parameter value
+    private static final Map<String, String> SETTINGS = Map.ofEntries(
+        Map.entry("charFilter.mapping", "{\"type\": \"mapping\", \"mappings\": {\"ä\": \"ae\", \"ö\": \"oe\", \"ü\": \"ue\", \"ß\": \"ss\"}}"),
+        Map.entry("tokenizer.edgeGram", "{\"type\": \"edgeGram\", \"minGram\": 2, \"maxGram\": 5}"),
+        Map.entry("tokenizer.nGram", "{\"type\": \"nGram\", \"minGram\": 2, \"maxGram\": 5}"),
+        Map.entry("tokenizer.regexCaptureGroup", "{\"type\": \"regexCaptureGroup\", \"pattern\": \"(\\\\w+)\", \"group\": 1}"),
+        Map.entry("tokenizer.regexSplit", "{\"type\": \"regexSplit\", \"pattern\": \"\\\\s+\"}"),
+        Map.entry("tokenFilter.edgeGram", "{\"type\": \"edgeGram\", \"minGram\": 2, \"maxGram\": 5}"),
+        Map.entry("tokenFilter.nGram", "{\"type\": \"nGram\", \"minGram\": 2, \"maxGram\": 5}"),
+        Map.entry("tokenFilter.regex", "{\"type\": \"regex\", \"pattern\": \"[aeiou]\", \"replacement\": \"\", \"matches\": \"all\"}"),
+        Map.entry("tokenFilter.snowballStemming", "{\"type\": \"snowballStemming\", \"stemmerName\": \"english\"}"),
+        Map.entry("tokenFilter.stopword", "{\"type\": \"stopword\", \"tokens\": [\"the\", \"a\", \"and\", \"of\", \"to\", \"in\"]}")
+    );
+
+    @Param({"tokenizer.standard"})
+    public String component;
+
+    @Param({"en", "de", "fr", "ru", "ar", "zh"})
+    public String language;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private Analyzer analyzer;
+    private String text;
+
+    /**
+     * Parameter values for every char filter, tokenizer and token filter type.
+     */
+    static List<String> components() {
+        List<String> components = new ArrayList<>();
+        addTypes(components, "charFilter", CharFilterDefinition.class);
+        addTypes(components, "tokenizer", TokenizerDefinition.class);
+        addTypes(components, "tokenFilter", TokenFilterDefinition.class);
+        return components;
+    }
+
+    private static void addTypes(List<String> components, String kind, Class<?> definitionClass) {
+        for (JsonSubTypes.Type type : definitionClass.getAnnotation(JsonSubTypes.class).value()) {
+            components.add(kind + "." + type.name());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int dot = component.indexOf('.');
+        String kind = component.substring(0, dot);
+        String settings = SETTINGS.getOrDefault(component, "{\"type\": \"" + component.substring(dot + 1) + "\"}");
+        String definition;
+        switch (kind) {
+            case "charFilter":
+                definition = "{\"charFilters\": [" + settings + "], \"tokenizer\": " + STANDARD_TOKENIZER + "}";
+                break;
+            case "tokenizer":
+                definition = "{\"tokenizer\": " + settings + "}";
+                break;
+            case "tokenFilter":
+                definition = "{\"tokenizer\": " + STANDARD_TOKENIZER + ", \"tokenFilters\": [" + settings + "]}";
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown component: " + component);
+        }
+        analyzer = CustomAnalyzerFactory.build(new ObjectMapper().readValue(definition, CustomAnalyzerDefinition.class));
+        text = BenchmarkTexts.text(language, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        analyzer.close();
+    }
+
+    @Benchmark
+    public int tokenize(TokenCounter counter) throws IOException {
+        int count = AnalyzerBenchmark.consume(analyzer, text);
+        counter.tokens += count;
+        return count;
+    }
+}
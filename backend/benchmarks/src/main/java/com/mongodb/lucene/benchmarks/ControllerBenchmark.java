@@ -0,0 +1,108 @@
+package com.mongodb.lucene.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.controller.AnalyzerController;
+import com.mongodb.lucene.model.AnalyzeRequest;
+import com.mongodb.lucene.service.AnalyzerLease;
+import com.mongodb.lucene.service.AnalyzerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * A full {@code POST /api/analyze} request/response cycle through the dispatcher servlet: request
+ * body parsing, both analyses, token matching and response serialization, with the result cache
+ * disabled. Runs in-process through MockMvc, so no network time is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @Param({"lucene.standard", "lucene.english"})
+    public String requestAnalyzer;
+
+    @Param({"full", "compact"})
+    public String layout;
+
+    @Param({"en", "de", "fr", "ru", "ar", "zh"})
+    public String language;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private byte[] body;
+    private int tokensPerOperation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start();
+        HttpMessageConverters converters = context.getBean(HttpMessageConverters.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(context.getBean(AnalyzerController.class))
+            .setMessageConverters(converters.getConverters().toArray(new HttpMessageConverter<?>[0]))
+            .build();
+
+        String indexText = BenchmarkTexts.text(language, size);
+        String queryText = BenchmarkTexts.text(language, Math.min(size, 32));
+        AnalyzeRequest request = new AnalyzeRequest();
+        request.setIndexText(indexText);
+        request.setQueryText(queryText);
+        request.setIndexAnalyzer(requestAnalyzer);
+        request.setQueryAnalyzer(requestAnalyzer);
+        body = new ObjectMapper().writeValueAsBytes(request);
+
+        try (AnalyzerLease lease = context.getBean(AnalyzerService.class).acquireAnalyzer(requestAnalyzer, null)) {
+            tokensPerOperation = AnalyzerBenchmark.consume(lease.getAnalyzer(), indexText)
+                + AnalyzerBenchmark.consume(lease.getAnalyzer(), queryText);
+        }
+        int status = analyze().getResponse().getStatus();
+        if (status != 200) {
+            throw new IllegalStateException("POST /api/analyze returned " + status);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] analyze(TokenCounter counter) throws Exception {
+        counter.tokens += tokensPerOperation;
+        return analyze().getResponse().getContentAsByteArray();
+    }
+
+    private MvcResult analyze() throws Exception {
+        return mockMvc.perform(post("/api/analyze")
+                .param("layout", layout)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andReturn();
+    }
+}
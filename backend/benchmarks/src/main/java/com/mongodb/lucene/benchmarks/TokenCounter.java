@@ -0,0 +1,23 @@
+package com.mongodb.lucene.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the tokens produced by a benchmark. JMH reports the counter next to the primary result,
+ * normalized like it, so in average time mode the {@code tokens} result reads as ns/token.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class TokenCounter {
+
+    public long tokens;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        tokens = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mongodb.lucene.config;
+
+import com.mongodb.lucene.service.AnalysisMetrics;
+import com.mongodb.lucene.service.AnalysisResultCache;
+import com.mongodb.lucene.service.AnalyzerService;
+import com.mongodb.lucene.service.CustomAnalyzerCache;
+import com.mongodb.lucene.service.CustomAnalyzerRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Cache gauges and API request metrics. Analysis timings are recorded by {@link AnalysisMetrics}.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AnalysisMetrics metrics;
+
+    /**
+     * Sizes and hit/miss/eviction counts of the analysis result cache and the custom analyzer cache,
+     * and the number of registered custom analyzers.
+     */
+    @Bean
+    public MeterBinder analyzerCacheMetrics(AnalysisResultCache resultCache, CustomAnalyzerCache customAnalyzers,
+                                            CustomAnalyzerRegistry registeredAnalyzers,
+                                            AnalyzerService analyzerService) {
+        return registry -> {
+            Gauge.builder("analyzer.result.cache.size", resultCache, AnalysisResultCache::size)
+                .description("Cached analysis results")
+                .register(registry);
+            Gauge.builder("analyzer.result.cache.weight", resultCache, AnalysisResultCache::getWeightedSize)
+                .description("Estimated memory held by cached analysis results")
+                .baseUnit("bytes")
+                .register(registry);
+            FunctionCounter.builder("analyzer.result.cache.requests", resultCache, AnalysisResultCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("analyzer.result.cache.requests", resultCache, AnalysisResultCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("analyzer.result.cache.evictions", resultCache, AnalysisResultCache::getEvictionCount)
+                .register(registry);
+            FunctionCounter.builder("analyzer.result.cache.rejections", resultCache, AnalysisResultCache::getRejectionCount)
+                .description("Results not admitted because they were requested less often than what they would replace")
+                .register(registry);
+            FunctionCounter.builder("analyzer.result.cache.expirations", resultCache, AnalysisResultCache::getExpirationCount)
+                .register(registry);
+
+            Gauge.builder("analyzer.custom.cache.size", customAnalyzers, CustomAnalyzerCache::size)
+                .description("Compiled custom analyzers")
+                .register(registry);
+            FunctionCounter.builder("analyzer.custom.cache.requests", customAnalyzers, CustomAnalyzerCache::getHitCount)
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("analyzer.custom.cache.requests", customAnalyzers, CustomAnalyzerCache::getMissCount)
+                .tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("analyzer.custom.cache.evictions", customAnalyzers, CustomAnalyzerCache::getEvictionCount)
+                .register(registry);
+            Gauge.builder("analyzer.custom.registered", registeredAnalyzers, CustomAnalyzerRegistry::size)
+                .description("Custom analyzers registered by name")
+                .register(registry);
+
+            FunctionCounter.builder("analyzer.analysis.coalesced", analyzerService, AnalyzerService::getCoalescedCount)
+                .description("Analyses served by waiting on an identical one already in progress")
+                .register(registry);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor()).addPathPatterns("/api/**");
+    }
+
+    /**
+     * Records request body sizes and rejected or failed requests per endpoint pattern.
+     */
+    private class RequestMetricsInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // Streaming responses come back through an async dispatch; count the request once
+            long size = request.getContentLengthLong();
+            if (request.getDispatcherType() == DispatcherType.REQUEST && size >= 0) {
+                metrics.recordRequestSize(endpoint(request), size);
+            }
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                    Exception ex) {
+            if (ex != null || response.getStatus() >= 500) {
+                metrics.recordFailed(endpoint(request));
+            } else if (response.getStatus() >= 400) {
+                metrics.recordRejected(endpoint(request));
+            }
+        }
+
+        private String endpoint(HttpServletRequest request) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (pattern != null ? pattern : "unknown");
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package com.mongodb.lucene.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mongodb.lucene.model.*;
+import com.mongodb.lucene.service.AnalyzerLease;
 import com.mongodb.lucene.service.AnalyzerService;
-import org.apache.lucene.analysis.Analyzer;
+import com.mongodb.lucene.service.BatchAnalysisService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api")
@@ -18,6 +38,12 @@ public class AnalyzerController {
     @Autowired
     private AnalyzerService analyzerService;
 
+    @Autowired
+    private BatchAnalysisService batchAnalysisService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Get all available analyzers
      */
@@ -27,68 +53,27 @@ public class AnalyzerController {
     }
 
     /**
-     * Analyze text with specified analyzers
+     * Analyze text with specified analyzers.
+     * With layout=compact the response is dictionary-encoded, see {@link CompactAnalyzeResponse}.
      */
     @PostMapping("/analyze")
-    public ResponseEntity<AnalyzeResponse> analyzeText(@RequestBody AnalyzeRequest request) {
-        try {
-            // Get analyzers (custom or predefined)
-            Analyzer indexAnalyzer = analyzerService.getAnalyzer(
-                request.getIndexAnalyzer(), 
-                request.getCustomIndexAnalyzer()
-            );
-            Analyzer queryAnalyzer = analyzerService.getAnalyzer(
-                request.getQueryAnalyzer(), 
-                request.getCustomQueryAnalyzer()
-            );
-
-            // Analyze index text
-            Set<TokenInfo> indexTokens = analyzerService.analyzeText(
-                indexAnalyzer,
-                request.getIndexText(),
-                false,
-                request.isUseAutocomplete(),
-                request.getAutocompleteConfig()
-            );
-
-            // Analyze query text
-            Set<TokenInfo> queryTokens = analyzerService.analyzeText(
-                queryAnalyzer,
-                request.getQueryText(),
-                true,
-                request.isUseAutocomplete(),
-                request.getAutocompleteConfig()
-            );
-
-            // Find matching tokens
-            Set<String> indexTokenStrings = indexTokens.stream()
-                .map(TokenInfo::getText)
-                .collect(Collectors.toSet());
-            Set<String> queryTokenStrings = queryTokens.stream()
-                .map(TokenInfo::getText)
-                .collect(Collectors.toSet());
-            
-            Set<String> matchingTokens = new HashSet<>(indexTokenStrings);
-            matchingTokens.retainAll(queryTokenStrings);
-
-            // Mark matched tokens
-            indexTokens.forEach(token -> token.setMatched(matchingTokens.contains(token.getText())));
-            queryTokens.forEach(token -> token.setMatched(matchingTokens.contains(token.getText())));
-
-            // Create response
-            String analyzerName = request.getCustomIndexAnalyzer() != null 
-                ? "Custom: " + request.getCustomIndexAnalyzer().getName()
-                : request.getIndexAnalyzer();
-            
-            AnalyzeResponse response = new AnalyzeResponse(
-                new ArrayList<>(indexTokens),
-                new ArrayList<>(queryTokens),
-                matchingTokens,
-                analyzerName
-            );
+    public ResponseEntity<Object> analyzeText(@RequestBody AnalyzeRequest request,
+                                              @RequestParam(defaultValue = "full") String layout) {
+        // Lease analyzers (custom or predefined)
+        try (AnalyzerLease indexAnalyzer = analyzerService.acquireAnalyzer(
+                 request.getIndexAnalyzer(), 
+                 request.getCustomIndexAnalyzer()
+             );
+             AnalyzerLease queryAnalyzer = analyzerService.acquireAnalyzer(
+                 request.getQueryAnalyzer(), 
+                 request.getCustomQueryAnalyzer()
+             )) {
 
+            AnalyzeResponse response = analyzerService.analyze(indexAnalyzer, queryAnalyzer, request);
+            if ("compact".equals(layout)) {
+                return ResponseEntity.ok(CompactAnalyzeResponse.of(response));
+            }
             return ResponseEntity.ok(response);
-
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -96,4 +81,144 @@ public class AnalyzerController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Analyze a raw text body of any size with one analyzer.
+     * The body is decoded straight into the token stream and tokens are written to the response
+     * as they are produced, so neither the document nor the token list is held in memory.
+     */
+    @PostMapping(value = "/analyze/stream", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public void analyzeStream(@RequestParam String analyzer, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        Charset charset;
+        try {
+            charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            // Illegal or unsupported charset name
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            return;
+        }
+
+        AnalyzerLease lease;
+        try {
+            lease = analyzerService.acquireAnalyzer(analyzer, null);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        try (lease;
+             Reader reader = new InputStreamReader(request.getInputStream(), charset);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeStringField("analyzerUsed", analyzer);
+            generator.writeArrayFieldStart("tokens");
+            long tokenCount = analyzerService.streamTokens(lease, reader,
+                (buffer, length) -> generator.writeString(buffer, 0, length));
+            generator.writeEndArray();
+            generator.writeNumberField("tokenCount", tokenCount);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Analyze a batch of text pairs sharing one analyzer spec, given as a JSON object
+     */
+    @PostMapping(value = "/analyze/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> analyzeBatch(@RequestBody BatchAnalyzeRequest request,
+                                                              NativeWebRequest webRequest) {
+        List<BatchItem> items = request.getItems() != null ? request.getItems() : List.of();
+        return streamBatch(request.getSpec(), items.iterator(), webRequest);
+    }
+
+    /**
+     * Analyze a batch of text pairs given as NDJSON: the first line is the analyzer spec,
+     * every following line is an item. Items are read as the batch progresses.
+     */
+    @PostMapping(value = "/analyze/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> analyzeBatchStream(InputStream body, NativeWebRequest webRequest) {
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(body);
+            AnalyzeRequest spec = objectMapper.readValue(parser, AnalyzeRequest.class);
+            parser.clearCurrentToken();
+            return streamBatch(spec, objectMapper.readValues(parser, BatchItem.class), webRequest);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Resolve the spec's analyzers once and stream one NDJSON result line per item, in input order.
+     * The leases are closed by the body, or on async completion if the body never got to run
+     * (the client went away or the request timed out first).
+     */
+    private ResponseEntity<StreamingResponseBody> streamBatch(AnalyzeRequest spec, Iterator<BatchItem> items,
+                                                              NativeWebRequest webRequest) {
+        if (spec == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        AnalyzerLease indexAnalyzer = null;
+        AnalyzerLease queryAnalyzer;
+        try {
+            indexAnalyzer = analyzerService.acquireAnalyzer(spec.getIndexAnalyzer(), spec.getCustomIndexAnalyzer());
+            queryAnalyzer = analyzerService.acquireAnalyzer(spec.getQueryAnalyzer(), spec.getCustomQueryAnalyzer());
+        } catch (IllegalArgumentException e) {
+            if (indexAnalyzer != null) {
+                indexAnalyzer.close();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+
+        AnalyzerLease index = indexAnalyzer;
+        // Whichever of the body and the completion callback claims the leases first closes them
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(
+            BatchLeases.class.getName(), new BatchLeases(claimed, index, queryAnalyzer));
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        StreamingResponseBody body = output -> {
+            if (!claimed.compareAndSet(false, true)) {
+                // The request already completed without this body
+                return;
+            }
+            try (index; queryAnalyzer) {
+                batchAnalysisService.analyze(index, queryAnalyzer, spec, items, result -> {
+                    output.write(writer.writeValueAsBytes(result));
+                    output.write('\n');
+                    output.flush();
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Closes the batch leases when async processing ends before the streaming body has started.
+     */
+    private static final class BatchLeases implements CallableProcessingInterceptor {
+        private final AtomicBoolean claimed;
+        private final AnalyzerLease indexAnalyzer;
+        private final AnalyzerLease queryAnalyzer;
+
+        private BatchLeases(AtomicBoolean claimed, AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer) {
+            this.claimed = claimed;
+            this.indexAnalyzer = indexAnalyzer;
+            this.queryAnalyzer = queryAnalyzer;
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            if (claimed.compareAndSet(false, true)) {
+                indexAnalyzer.close();
+                queryAnalyzer.close();
+            }
+        }
+    }
 }
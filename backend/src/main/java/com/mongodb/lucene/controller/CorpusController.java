@@ -0,0 +1,99 @@
+package com.mongodb.lucene.controller;
+
+import com.mongodb.lucene.model.CorpusSummary;
+import com.mongodb.lucene.model.EstimateRequest;
+import com.mongodb.lucene.model.IndexEstimate;
+import com.mongodb.lucene.model.SampleDocument;
+import com.mongodb.lucene.model.SearchRequest;
+import com.mongodb.lucene.model.SearchResponse;
+import com.mongodb.lucene.service.CorpusService;
+import com.mongodb.lucene.service.IndexEstimator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/corpora")
+@CrossOrigin(origins = "*")
+public class CorpusController {
+
+    @Autowired
+    private CorpusService corpusService;
+
+    @Autowired
+    private IndexEstimator indexEstimator;
+
+    /**
+     * List sample corpora
+     */
+    @GetMapping
+    public ResponseEntity<List<CorpusSummary>> listCorpora() {
+        return ResponseEntity.ok(corpusService.listCorpora());
+    }
+
+    /**
+     * Add documents to a corpus, creating it if needed
+     */
+    @PostMapping("/{corpus}/documents")
+    public ResponseEntity<CorpusSummary> addDocuments(@PathVariable String corpus,
+                                                      @RequestBody List<SampleDocument> documents) {
+        try {
+            return ResponseEntity.ok(corpusService.addDocuments(corpus, documents));
+        } catch (CorpusService.CorpusDeletedException e) {
+            // Deleted while the documents were being added
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Delete a corpus and its indexes
+     */
+    @DeleteMapping("/{corpus}")
+    public ResponseEntity<Void> deleteCorpus(@PathVariable String corpus) {
+        return corpusService.deleteCorpus(corpus)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Search a corpus with the query analyzed into a Lucene query and scored with BM25
+     */
+    @PostMapping("/{corpus}/search")
+    public ResponseEntity<SearchResponse> search(@PathVariable String corpus, @RequestBody SearchRequest request) {
+        try {
+            SearchResponse response = corpusService.search(corpus, request);
+            return response != null ? ResponseEntity.ok(response) : ResponseEntity.notFound().build();
+        } catch (CorpusService.CorpusDeletedException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Index a corpus with one analyzer configuration and report its size and indexing cost
+     */
+    @PostMapping("/{corpus}/estimate")
+    public ResponseEntity<IndexEstimate> estimate(@PathVariable String corpus, @RequestBody EstimateRequest request) {
+        try {
+            IndexEstimate estimate = indexEstimator.estimate(corpus, request);
+            return estimate != null ? ResponseEntity.ok(estimate) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mongodb.lucene.controller;
+
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import com.mongodb.lucene.service.CustomAnalyzerRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analyzers/custom")
+@CrossOrigin(origins = "*")
+public class CustomAnalyzerController {
+
+    @Autowired
+    private CustomAnalyzerRegistry registry;
+
+    /**
+     * List registered custom analyzers
+     */
+    @GetMapping
+    public ResponseEntity<List<CustomAnalyzerDefinition>> listAnalyzers() {
+        return ResponseEntity.ok(registry.getDefinitions());
+    }
+
+    /**
+     * Get the definition of a registered custom analyzer
+     */
+    @GetMapping("/{name}")
+    public ResponseEntity<CustomAnalyzerDefinition> getAnalyzer(@PathVariable String name) {
+        CustomAnalyzerDefinition definition = registry.getDefinition(name);
+        return definition != null ? ResponseEntity.ok(definition) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Register a custom analyzer under a name, or replace the one registered under it
+     */
+    @PutMapping("/{name}")
+    public ResponseEntity<CustomAnalyzerDefinition> registerAnalyzer(@PathVariable String name,
+                                                                     @RequestBody CustomAnalyzerDefinition definition) {
+        try {
+            boolean replaced = registry.register(name, definition);
+            return ResponseEntity.status(replaced ? HttpStatus.OK : HttpStatus.CREATED).body(definition);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Delete a registered custom analyzer
+     */
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> deleteAnalyzer(@PathVariable String name) {
+        return registry.delete(name)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+}
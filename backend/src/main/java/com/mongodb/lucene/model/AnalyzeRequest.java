@@ -11,12 +11,38 @@ public class AnalyzeRequest {
     private CustomAnalyzerDefinition customQueryAnalyzer;
     private boolean useAutocomplete;
     private AutocompleteConfig autocompleteConfig;
+    private boolean includeDetails;
+    private String matchMode = "exact"; // "exact", "prefix", "wildcard", "regex" or "fuzzy"
+    private int maxEdits = 2; // Fuzzy mode only: 1 or 2
+    private boolean profile; // Time each stage of custom analyzer chains
+    private boolean explain; // Trace the tokens after each stage of custom analyzer chains
 
     // Constructors
     public AnalyzeRequest() {
         this.autocompleteConfig = new AutocompleteConfig();
     }
 
+    /**
+     * Copy of this request's analyzer settings with different texts
+     */
+    public AnalyzeRequest withTexts(String indexText, String queryText) {
+        AnalyzeRequest copy = new AnalyzeRequest();
+        copy.indexText = indexText;
+        copy.queryText = queryText;
+        copy.indexAnalyzer = indexAnalyzer;
+        copy.queryAnalyzer = queryAnalyzer;
+        copy.customIndexAnalyzer = customIndexAnalyzer;
+        copy.customQueryAnalyzer = customQueryAnalyzer;
+        copy.useAutocomplete = useAutocomplete;
+        copy.autocompleteConfig = autocompleteConfig;
+        copy.includeDetails = includeDetails;
+        copy.matchMode = matchMode;
+        copy.maxEdits = maxEdits;
+        copy.profile = profile;
+        copy.explain = explain;
+        return copy;
+    }
+
     // Getters and Setters
     public String getIndexText() {
         return indexText;
@@ -81,4 +107,44 @@ public class AnalyzeRequest {
     public void setCustomQueryAnalyzer(CustomAnalyzerDefinition customQueryAnalyzer) {
         this.customQueryAnalyzer = customQueryAnalyzer;
     }
+
+    public boolean isIncludeDetails() {
+        return includeDetails;
+    }
+
+    public void setIncludeDetails(boolean includeDetails) {
+        this.includeDetails = includeDetails;
+    }
+
+    public String getMatchMode() {
+        return matchMode;
+    }
+
+    public void setMatchMode(String matchMode) {
+        this.matchMode = matchMode;
+    }
+
+    public int getMaxEdits() {
+        return maxEdits;
+    }
+
+    public void setMaxEdits(int maxEdits) {
+        this.maxEdits = maxEdits;
+    }
+
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public void setProfile(boolean profile) {
+        this.profile = profile;
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
 }
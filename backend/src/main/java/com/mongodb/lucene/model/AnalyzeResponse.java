@@ -1,6 +1,9 @@
 package com.mongodb.lucene.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class AnalyzeResponse {
@@ -8,6 +11,24 @@ public class AnalyzeResponse {
     private List<TokenInfo> queryTokens;
     private Set<String> matchingTokens;
     private String analyzerUsed;
+    // Every token with positions, offsets, types and flags; only filled in when requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TokenBuffer indexDetails;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TokenBuffer queryDetails;
+    // Index terms matched by each query pattern; only in prefix, wildcard, regex and fuzzy modes
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, List<String>> queryExpansions;
+    // Per-stage timings of custom analyzer chains; only filled in when profiling is requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<StageProfile> indexProfile;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<StageProfile> queryProfile;
+    // Tokens after each stage of custom analyzer chains; only filled in when explain is requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TokenTrace indexTrace;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TokenTrace queryTrace;
 
     // Constructors
     public AnalyzeResponse() {}
@@ -52,4 +73,60 @@ public class AnalyzeResponse {
     public void setAnalyzerUsed(String analyzerUsed) {
         this.analyzerUsed = analyzerUsed;
     }
+
+    public TokenBuffer getIndexDetails() {
+        return indexDetails;
+    }
+
+    public void setIndexDetails(TokenBuffer indexDetails) {
+        this.indexDetails = indexDetails;
+    }
+
+    public TokenBuffer getQueryDetails() {
+        return queryDetails;
+    }
+
+    public void setQueryDetails(TokenBuffer queryDetails) {
+        this.queryDetails = queryDetails;
+    }
+
+    public Map<String, List<String>> getQueryExpansions() {
+        return queryExpansions;
+    }
+
+    public void setQueryExpansions(Map<String, List<String>> queryExpansions) {
+        this.queryExpansions = queryExpansions;
+    }
+
+    public List<StageProfile> getIndexProfile() {
+        return indexProfile;
+    }
+
+    public void setIndexProfile(List<StageProfile> indexProfile) {
+        this.indexProfile = indexProfile;
+    }
+
+    public List<StageProfile> getQueryProfile() {
+        return queryProfile;
+    }
+
+    public void setQueryProfile(List<StageProfile> queryProfile) {
+        this.queryProfile = queryProfile;
+    }
+
+    public TokenTrace getIndexTrace() {
+        return indexTrace;
+    }
+
+    public void setIndexTrace(TokenTrace indexTrace) {
+        this.indexTrace = indexTrace;
+    }
+
+    public TokenTrace getQueryTrace() {
+        return queryTrace;
+    }
+
+    public void setQueryTrace(TokenTrace queryTrace) {
+        this.queryTrace = queryTrace;
+    }
 }
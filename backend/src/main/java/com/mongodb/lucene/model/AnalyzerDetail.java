@@ -1,10 +1,21 @@
 package com.mongodb.lucene.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class AnalyzerDetail {
     private String name;
     private String category;
     private boolean disabled;
     private String additionalLabel;
+    // Only for analyzers whose dictionary is loaded on first use
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean dictionaryLoaded;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double dictionaryLoadMillis;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long dictionaryHeapBytes; // Heap allocated while loading, when the JVM can measure it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long dictionaryDirectBytes; // Direct buffer memory taken while loading
 
     // Constructors
     public AnalyzerDetail() {}
@@ -55,4 +66,36 @@ public class AnalyzerDetail {
     public void setAdditionalLabel(String additionalLabel) {
         this.additionalLabel = additionalLabel;
     }
+
+    public Boolean getDictionaryLoaded() {
+        return dictionaryLoaded;
+    }
+
+    public void setDictionaryLoaded(Boolean dictionaryLoaded) {
+        this.dictionaryLoaded = dictionaryLoaded;
+    }
+
+    public Double getDictionaryLoadMillis() {
+        return dictionaryLoadMillis;
+    }
+
+    public void setDictionaryLoadMillis(Double dictionaryLoadMillis) {
+        this.dictionaryLoadMillis = dictionaryLoadMillis;
+    }
+
+    public Long getDictionaryHeapBytes() {
+        return dictionaryHeapBytes;
+    }
+
+    public void setDictionaryHeapBytes(Long dictionaryHeapBytes) {
+        this.dictionaryHeapBytes = dictionaryHeapBytes;
+    }
+
+    public Long getDictionaryDirectBytes() {
+        return dictionaryDirectBytes;
+    }
+
+    public void setDictionaryDirectBytes(Long dictionaryDirectBytes) {
+        this.dictionaryDirectBytes = dictionaryDirectBytes;
+    }
 }
@@ -0,0 +1,33 @@
+package com.mongodb.lucene.model;
+
+import java.util.List;
+
+public class BatchAnalyzeRequest {
+    private AnalyzeRequest spec; // Analyzers and autocomplete settings shared by all items
+    private List<BatchItem> items;
+
+    // Constructors
+    public BatchAnalyzeRequest() {}
+
+    public BatchAnalyzeRequest(AnalyzeRequest spec, List<BatchItem> items) {
+        this.spec = spec;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public AnalyzeRequest getSpec() {
+        return spec;
+    }
+
+    public void setSpec(AnalyzeRequest spec) {
+        this.spec = spec;
+    }
+
+    public List<BatchItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BatchItem> items) {
+        this.items = items;
+    }
+}
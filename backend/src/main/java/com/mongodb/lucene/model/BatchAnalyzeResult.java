@@ -0,0 +1,44 @@
+package com.mongodb.lucene.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchAnalyzeResult {
+    private int index;
+    private AnalyzeResponse result;
+    private String error;
+
+    // Constructors
+    public BatchAnalyzeResult() {}
+
+    public BatchAnalyzeResult(int index, AnalyzeResponse result, String error) {
+        this.index = index;
+        this.result = result;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public AnalyzeResponse getResult() {
+        return result;
+    }
+
+    public void setResult(AnalyzeResponse result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mongodb.lucene.model;
+
+public class BatchItem {
+    private String indexText;
+    private String queryText;
+
+    // Constructors
+    public BatchItem() {}
+
+    public BatchItem(String indexText, String queryText) {
+        this.indexText = indexText;
+        this.queryText = queryText;
+    }
+
+    // Getters and Setters
+    public String getIndexText() {
+        return indexText;
+    }
+
+    public void setIndexText(String indexText) {
+        this.indexText = indexText;
+    }
+
+    public String getQueryText() {
+        return queryText;
+    }
+
+    public void setQueryText(String queryText) {
+        this.queryText = queryText;
+    }
+}
@@ -0,0 +1,202 @@
+package com.mongodb.lucene.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary-encoded form of {@link AnalyzeResponse}: every distinct term appears once in
+ * {@code terms}, the token lists are indexes into it, and {@code indexMatched} and
+ * {@code queryMatched} are bitsets over the token lists (bit i set when token i matched),
+ * little-endian bytes, base64 in JSON. {@code queryExpansions} maps a pattern's term index to the
+ * indexes of the index terms it matched.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompactAnalyzeResponse {
+    private List<String> terms;
+    private int[] indexTokens;
+    private int[] queryTokens;
+    private byte[] indexMatched;
+    private byte[] queryMatched;
+    private Map<Integer, int[]> queryExpansions;
+    private String analyzerUsed;
+    private TokenBuffer indexDetails;
+    private TokenBuffer queryDetails;
+    private List<StageProfile> indexProfile;
+    private List<StageProfile> queryProfile;
+    private TokenTrace indexTrace;
+    private TokenTrace queryTrace;
+
+    // Constructors
+    public CompactAnalyzeResponse() {}
+
+    /**
+     * Encode a full response
+     */
+    public static CompactAnalyzeResponse of(AnalyzeResponse response) {
+        CompactAnalyzeResponse compact = new CompactAnalyzeResponse();
+        Map<String, Integer> ids = new HashMap<>();
+        compact.terms = new ArrayList<>();
+        compact.indexTokens = encode(response.getIndexTokens(), ids, compact.terms);
+        compact.queryTokens = encode(response.getQueryTokens(), ids, compact.terms);
+
+        compact.indexMatched = matched(response.getIndexTokens());
+        compact.queryMatched = matched(response.getQueryTokens());
+        if (response.getQueryExpansions() != null) {
+            compact.queryExpansions = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> expansion : response.getQueryExpansions().entrySet()) {
+                int[] expanded = new int[expansion.getValue().size()];
+                for (int i = 0; i < expanded.length; i++) {
+                    expanded[i] = id(expansion.getValue().get(i), ids, compact.terms);
+                }
+                compact.queryExpansions.put(id(expansion.getKey(), ids, compact.terms), expanded);
+            }
+        }
+        compact.analyzerUsed = response.getAnalyzerUsed();
+        compact.indexDetails = response.getIndexDetails();
+        compact.queryDetails = response.getQueryDetails();
+        compact.indexProfile = response.getIndexProfile();
+        compact.queryProfile = response.getQueryProfile();
+        compact.indexTrace = response.getIndexTrace();
+        compact.queryTrace = response.getQueryTrace();
+        return compact;
+    }
+
+    private static int[] encode(List<TokenInfo> tokens, Map<String, Integer> ids, List<String> terms) {
+        int[] encoded = new int[tokens.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = id(tokens.get(i).getText(), ids, terms);
+        }
+        return encoded;
+    }
+
+    private static int id(String term, Map<String, Integer> ids, List<String> terms) {
+        Integer id = ids.get(term);
+        if (id == null) {
+            id = terms.size();
+            ids.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    private static byte[] matched(List<TokenInfo> tokens) {
+        BitSet matched = new BitSet(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).isMatched()) {
+                matched.set(i);
+            }
+        }
+        return matched.toByteArray();
+    }
+
+    // Getters and Setters
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(List<String> terms) {
+        this.terms = terms;
+    }
+
+    public int[] getIndexTokens() {
+        return indexTokens;
+    }
+
+    public void setIndexTokens(int[] indexTokens) {
+        this.indexTokens = indexTokens;
+    }
+
+    public int[] getQueryTokens() {
+        return queryTokens;
+    }
+
+    public void setQueryTokens(int[] queryTokens) {
+        this.queryTokens = queryTokens;
+    }
+
+    public byte[] getIndexMatched() {
+        return indexMatched;
+    }
+
+    public void setIndexMatched(byte[] indexMatched) {
+        this.indexMatched = indexMatched;
+    }
+
+    public byte[] getQueryMatched() {
+        return queryMatched;
+    }
+
+    public void setQueryMatched(byte[] queryMatched) {
+        this.queryMatched = queryMatched;
+    }
+
+    public Map<Integer, int[]> getQueryExpansions() {
+        return queryExpansions;
+    }
+
+    public void setQueryExpansions(Map<Integer, int[]> queryExpansions) {
+        this.queryExpansions = queryExpansions;
+    }
+
+    public String getAnalyzerUsed() {
+        return analyzerUsed;
+    }
+
+    public void setAnalyzerUsed(String analyzerUsed) {
+        this.analyzerUsed = analyzerUsed;
+    }
+
+    public TokenBuffer getIndexDetails() {
+        return indexDetails;
+    }
+
+    public void setIndexDetails(TokenBuffer indexDetails) {
+        this.indexDetails = indexDetails;
+    }
+
+    public TokenBuffer getQueryDetails() {
+        return queryDetails;
+    }
+
+    public void setQueryDetails(TokenBuffer queryDetails) {
+        this.queryDetails = queryDetails;
+    }
+
+    public List<StageProfile> getIndexProfile() {
+        return indexProfile;
+    }
+
+    public void setIndexProfile(List<StageProfile> indexProfile) {
+        this.indexProfile = indexProfile;
+    }
+
+    public List<StageProfile> getQueryProfile() {
+        return queryProfile;
+    }
+
+    public void setQueryProfile(List<StageProfile> queryProfile) {
+        this.queryProfile = queryProfile;
+    }
+
+    public TokenTrace getIndexTrace() {
+        return indexTrace;
+    }
+
+    public void setIndexTrace(TokenTrace indexTrace) {
+        this.indexTrace = indexTrace;
+    }
+
+    public TokenTrace getQueryTrace() {
+        return queryTrace;
+    }
+
+    public void setQueryTrace(TokenTrace queryTrace) {
+        this.queryTrace = queryTrace;
+    }
+}
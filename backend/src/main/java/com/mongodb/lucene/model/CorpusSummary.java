@@ -0,0 +1,43 @@
+package com.mongodb.lucene.model;
+
+import java.util.List;
+
+public class CorpusSummary {
+    private String name;
+    private int documentCount;
+    private List<String> indexedAnalyzers; // Analyzers with a built index for this corpus
+
+    // Constructors
+    public CorpusSummary() {}
+
+    public CorpusSummary(String name, int documentCount, List<String> indexedAnalyzers) {
+        this.name = name;
+        this.documentCount = documentCount;
+        this.indexedAnalyzers = indexedAnalyzers;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public void setDocumentCount(int documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    public List<String> getIndexedAnalyzers() {
+        return indexedAnalyzers;
+    }
+
+    public void setIndexedAnalyzers(List<String> indexedAnalyzers) {
+        this.indexedAnalyzers = indexedAnalyzers;
+    }
+}
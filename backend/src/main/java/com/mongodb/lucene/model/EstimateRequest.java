@@ -0,0 +1,48 @@
+package com.mongodb.lucene.model;
+
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+
+public class EstimateRequest {
+    private String indexAnalyzer;
+    private CustomAnalyzerDefinition customIndexAnalyzer;
+    private boolean useAutocomplete;
+    private AutocompleteConfig autocompleteConfig;
+
+    // Constructors
+    public EstimateRequest() {
+        this.autocompleteConfig = new AutocompleteConfig();
+    }
+
+    // Getters and Setters
+    public String getIndexAnalyzer() {
+        return indexAnalyzer;
+    }
+
+    public void setIndexAnalyzer(String indexAnalyzer) {
+        this.indexAnalyzer = indexAnalyzer;
+    }
+
+    public CustomAnalyzerDefinition getCustomIndexAnalyzer() {
+        return customIndexAnalyzer;
+    }
+
+    public void setCustomIndexAnalyzer(CustomAnalyzerDefinition customIndexAnalyzer) {
+        this.customIndexAnalyzer = customIndexAnalyzer;
+    }
+
+    public boolean isUseAutocomplete() {
+        return useAutocomplete;
+    }
+
+    public void setUseAutocomplete(boolean useAutocomplete) {
+        this.useAutocomplete = useAutocomplete;
+    }
+
+    public AutocompleteConfig getAutocompleteConfig() {
+        return autocompleteConfig;
+    }
+
+    public void setAutocompleteConfig(AutocompleteConfig autocompleteConfig) {
+        this.autocompleteConfig = autocompleteConfig;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mongodb.lucene.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+public class IndexEstimate {
+    private String corpus;
+    private String analyzerUsed;
+    private int documentCount;
+    private long uniqueTerms;
+    private long totalTokens;
+    private long indexBytes;
+    private Map<String, Double> bytesPerDocument; // terms, postings, positions, norms, other
+    private Map<String, Long> fileBytes; // Bytes per index file extension
+    private double indexingMillis;
+    private double docsPerSecond;
+    private long indexingBufferBytes; // Writer buffer size just before the flush
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long allocatedBytes; // Heap allocated while indexing, when the JVM can measure it
+
+    // Constructors
+    public IndexEstimate() {}
+
+    // Getters and Setters
+    public String getCorpus() {
+        return corpus;
+    }
+
+    public void setCorpus(String corpus) {
+        this.corpus = corpus;
+    }
+
+    public String getAnalyzerUsed() {
+        return analyzerUsed;
+    }
+
+    public void setAnalyzerUsed(String analyzerUsed) {
+        this.analyzerUsed = analyzerUsed;
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    public void setDocumentCount(int documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    public long getUniqueTerms() {
+        return uniqueTerms;
+    }
+
+    public void setUniqueTerms(long uniqueTerms) {
+        this.uniqueTerms = uniqueTerms;
+    }
+
+    public long getTotalTokens() {
+        return totalTokens;
+    }
+
+    public void setTotalTokens(long totalTokens) {
+        this.totalTokens = totalTokens;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public void setIndexBytes(long indexBytes) {
+        this.indexBytes = indexBytes;
+    }
+
+    public Map<String, Double> getBytesPerDocument() {
+        return bytesPerDocument;
+    }
+
+    public void setBytesPerDocument(Map<String, Double> bytesPerDocument) {
+        this.bytesPerDocument = bytesPerDocument;
+    }
+
+    public Map<String, Long> getFileBytes() {
+        return fileBytes;
+    }
+
+    public void setFileBytes(Map<String, Long> fileBytes) {
+        this.fileBytes = fileBytes;
+    }
+
+    public double getIndexingMillis() {
+        return indexingMillis;
+    }
+
+    public void setIndexingMillis(double indexingMillis) {
+        this.indexingMillis = indexingMillis;
+    }
+
+    public double getDocsPerSecond() {
+        return docsPerSecond;
+    }
+
+    public void setDocsPerSecond(double docsPerSecond) {
+        this.docsPerSecond = docsPerSecond;
+    }
+
+    public long getIndexingBufferBytes() {
+        return indexingBufferBytes;
+    }
+
+    public void setIndexingBufferBytes(long indexingBufferBytes) {
+        this.indexingBufferBytes = indexingBufferBytes;
+    }
+
+    public Long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(Long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+}
@@ -0,0 +1,31 @@
+package com.mongodb.lucene.model;
+
+public class SampleDocument {
+    private String id;
+    private String text;
+
+    // Constructors
+    public SampleDocument() {}
+
+    public SampleDocument(String id, String text) {
+        this.id = id;
+        this.text = text;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mongodb.lucene.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHit {
+    private String id;
+    private float score;
+    private String text;
+    private String explanation;
+
+    // Constructors
+    public SearchHit() {}
+
+    public SearchHit(String id, float score, String text) {
+        this.id = id;
+        this.score = score;
+        this.text = text;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public void setScore(float score) {
+        this.score = score;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getExplanation() {
+        return explanation;
+    }
+
+    public void setExplanation(String explanation) {
+        this.explanation = explanation;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mongodb.lucene.model;
+
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+
+public class SearchRequest {
+    private String query;
+    private String indexAnalyzer;
+    private String queryAnalyzer;
+    private CustomAnalyzerDefinition customIndexAnalyzer;
+    private CustomAnalyzerDefinition customQueryAnalyzer;
+    private String operator = "or"; // "or" or "and" between query terms
+    private boolean phrase;
+    private int topK = 10;
+    private boolean explain;
+
+    // Constructors
+    public SearchRequest() {}
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getIndexAnalyzer() {
+        return indexAnalyzer;
+    }
+
+    public void setIndexAnalyzer(String indexAnalyzer) {
+        this.indexAnalyzer = indexAnalyzer;
+    }
+
+    public String getQueryAnalyzer() {
+        return queryAnalyzer;
+    }
+
+    public void setQueryAnalyzer(String queryAnalyzer) {
+        this.queryAnalyzer = queryAnalyzer;
+    }
+
+    public CustomAnalyzerDefinition getCustomIndexAnalyzer() {
+        return customIndexAnalyzer;
+    }
+
+    public void setCustomIndexAnalyzer(CustomAnalyzerDefinition customIndexAnalyzer) {
+        this.customIndexAnalyzer = customIndexAnalyzer;
+    }
+
+    public CustomAnalyzerDefinition getCustomQueryAnalyzer() {
+        return customQueryAnalyzer;
+    }
+
+    public void setCustomQueryAnalyzer(CustomAnalyzerDefinition customQueryAnalyzer) {
+        this.customQueryAnalyzer = customQueryAnalyzer;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public void setOperator(String operator) {
+        this.operator = operator;
+    }
+
+    public boolean isPhrase() {
+        return phrase;
+    }
+
+    public void setPhrase(boolean phrase) {
+        this.phrase = phrase;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+}
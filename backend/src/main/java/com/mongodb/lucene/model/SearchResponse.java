@@ -0,0 +1,84 @@
+package com.mongodb.lucene.model;
+
+import java.util.List;
+
+public class SearchResponse {
+    private String corpus;
+    private String analyzerUsed;
+    private String parsedQuery;
+    private long totalHits;
+    private double refreshMillis; // Time spent indexing new documents and reopening the reader
+    private double searchMillis;
+    private List<SearchHit> hits;
+
+    // Constructors
+    public SearchResponse() {}
+
+    public SearchResponse(String corpus, String analyzerUsed, String parsedQuery, long totalHits,
+                          double refreshMillis, double searchMillis, List<SearchHit> hits) {
+        this.corpus = corpus;
+        this.analyzerUsed = analyzerUsed;
+        this.parsedQuery = parsedQuery;
+        this.totalHits = totalHits;
+        this.refreshMillis = refreshMillis;
+        this.searchMillis = searchMillis;
+        this.hits = hits;
+    }
+
+    // Getters and Setters
+    public String getCorpus() {
+        return corpus;
+    }
+
+    public void setCorpus(String corpus) {
+        this.corpus = corpus;
+    }
+
+    public String getAnalyzerUsed() {
+        return analyzerUsed;
+    }
+
+    public void setAnalyzerUsed(String analyzerUsed) {
+        this.analyzerUsed = analyzerUsed;
+    }
+
+    public String getParsedQuery() {
+        return parsedQuery;
+    }
+
+    public void setParsedQuery(String parsedQuery) {
+        this.parsedQuery = parsedQuery;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public double getRefreshMillis() {
+        return refreshMillis;
+    }
+
+    public void setRefreshMillis(double refreshMillis) {
+        this.refreshMillis = refreshMillis;
+    }
+
+    public double getSearchMillis() {
+        return searchMillis;
+    }
+
+    public void setSearchMillis(double searchMillis) {
+        this.searchMillis = searchMillis;
+    }
+
+    public List<SearchHit> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHit> hits) {
+        this.hits = hits;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mongodb.lucene.model;
+
+public class StageProfile {
+    private String kind; // "charFilter", "tokenizer" or "tokenFilter"
+    private String type;
+    private long nanos; // Time spent in this stage alone
+    private long charsIn;
+    private long charsOut;
+    private long tokensIn;
+    private long tokensOut;
+
+    // Constructors
+    public StageProfile() {}
+
+    public StageProfile(String kind, String type, long nanos, long charsIn, long charsOut,
+                        long tokensIn, long tokensOut) {
+        this.kind = kind;
+        this.type = type;
+        this.nanos = nanos;
+        this.charsIn = charsIn;
+        this.charsOut = charsOut;
+        this.tokensIn = tokensIn;
+        this.tokensOut = tokensOut;
+    }
+
+    // Getters and Setters
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public long getCharsIn() {
+        return charsIn;
+    }
+
+    public void setCharsIn(long charsIn) {
+        this.charsIn = charsIn;
+    }
+
+    public long getCharsOut() {
+        return charsOut;
+    }
+
+    public void setCharsOut(long charsOut) {
+        this.charsOut = charsOut;
+    }
+
+    public long getTokensIn() {
+        return tokensIn;
+    }
+
+    public void setTokensIn(long tokensIn) {
+        this.tokensIn = tokensIn;
+    }
+
+    public long getTokensOut() {
+        return tokensOut;
+    }
+
+    public void setTokensOut(long tokensOut) {
+        this.tokensOut = tokensOut;
+    }
+}
@@ -0,0 +1,216 @@
+package com.mongodb.lucene.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every token of an analysis, including duplicates, stored column by column in primitive arrays:
+ * term characters live in one shared char arena addressed by start/end indexes, and positions,
+ * offsets, position lengths, type ids and flags each get their own int array. Adding a token
+ * allocates nothing once the arrays have grown, so large outputs cost a handful of arrays
+ * instead of an object per token. Serialized as one JSON array per column.
+ * <p>
+ * A buffer is filled once by the analyzer and must be treated as read-only afterwards, since
+ * finished buffers are cached and shared between requests.
+ */
+@JsonSerialize(using = TokenBuffer.Serializer.class)
+public final class TokenBuffer {
+
+    public static final int FLAG_KEYWORD = 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private char[] chars = new char[INITIAL_CAPACITY * 8];
+    private int charLength;
+
+    private int size;
+    private int[] termStarts = new int[INITIAL_CAPACITY];
+    private int[] termEnds = new int[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int[] startOffsets = new int[INITIAL_CAPACITY];
+    private int[] endOffsets = new int[INITIAL_CAPACITY];
+    private int[] positionLengths = new int[INITIAL_CAPACITY];
+    private int[] typeIds = new int[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+
+    // Token types are few and repeat constantly, so each distinct type is stored once
+    private final List<String> typeNames = new ArrayList<>();
+    private final Map<String, Integer> typeIdsByName = new HashMap<>();
+    private String lastType;
+    private int lastTypeId = -1;
+
+    /**
+     * Append a token; the term is copied out of the given buffer.
+     */
+    public void add(char[] term, int length, int position, int startOffset, int endOffset,
+                    int positionLength, String type, int tokenFlags) {
+        if (size == termStarts.length) {
+            grow();
+        }
+        if (charLength + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charLength + length));
+        }
+        System.arraycopy(term, 0, chars, charLength, length);
+        termStarts[size] = charLength;
+        charLength += length;
+        termEnds[size] = charLength;
+        positions[size] = position;
+        startOffsets[size] = startOffset;
+        endOffsets[size] = endOffset;
+        positionLengths[size] = positionLength;
+        typeIds[size] = typeId(type);
+        flags[size] = tokenFlags;
+        size++;
+    }
+
+    private int typeId(String type) {
+        // Types are usually the same constant instance, so an identity check avoids hashing
+        if (type == lastType) {
+            return lastTypeId;
+        }
+        Integer id = typeIdsByName.get(type);
+        if (id == null) {
+            id = typeNames.size();
+            typeNames.add(type);
+            typeIdsByName.put(type, id);
+        }
+        lastType = type;
+        lastTypeId = id;
+        return id;
+    }
+
+    private void grow() {
+        int capacity = termStarts.length * 2;
+        termStarts = Arrays.copyOf(termStarts, capacity);
+        termEnds = Arrays.copyOf(termEnds, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        startOffsets = Arrays.copyOf(startOffsets, capacity);
+        endOffsets = Arrays.copyOf(endOffsets, capacity);
+        positionLengths = Arrays.copyOf(positionLengths, capacity);
+        typeIds = Arrays.copyOf(typeIds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    /**
+     * Shrink the arrays to their contents once the buffer is complete.
+     */
+    public void trim() {
+        chars = Arrays.copyOf(chars, charLength);
+        termStarts = Arrays.copyOf(termStarts, size);
+        termEnds = Arrays.copyOf(termEnds, size);
+        positions = Arrays.copyOf(positions, size);
+        startOffsets = Arrays.copyOf(startOffsets, size);
+        endOffsets = Arrays.copyOf(endOffsets, size);
+        positionLengths = Arrays.copyOf(positionLengths, size);
+        typeIds = Arrays.copyOf(typeIds, size);
+        flags = Arrays.copyOf(flags, size);
+    }
+
+    /**
+     * Approximate heap footprint of the arrays.
+     */
+    public long ramBytesUsed() {
+        long bytes = 2L * chars.length + 4L * 8 * termStarts.length + 12L * 16;
+        for (String type : typeNames) {
+            bytes += 64 + 2L * type.length();
+        }
+        return bytes;
+    }
+
+    // Column accessors
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The char arena holding all terms; read a term with {@link #termStart} and {@link #termLength}.
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    public int termStart(int index) {
+        return termStarts[index];
+    }
+
+    public int termLength(int index) {
+        return termEnds[index] - termStarts[index];
+    }
+
+    public String term(int index) {
+        return new String(chars, termStarts[index], termLength(index));
+    }
+
+    public int position(int index) {
+        return positions[index];
+    }
+
+    public int startOffset(int index) {
+        return startOffsets[index];
+    }
+
+    public int endOffset(int index) {
+        return endOffsets[index];
+    }
+
+    public int positionLength(int index) {
+        return positionLengths[index];
+    }
+
+    public String type(int index) {
+        return typeNames.get(typeIds[index]);
+    }
+
+    public boolean isKeyword(int index) {
+        return (flags[index] & FLAG_KEYWORD) != 0;
+    }
+
+    /**
+     * Writes the columns without creating a String per term.
+     */
+    public static final class Serializer extends JsonSerializer<TokenBuffer> {
+        @Override
+        public void serialize(TokenBuffer buffer, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            int size = buffer.size;
+            generator.writeStartObject();
+            generator.writeNumberField("count", size);
+            generator.writeArrayFieldStart("terms");
+            for (int i = 0; i < size; i++) {
+                generator.writeString(buffer.chars, buffer.termStarts[i], buffer.termLength(i));
+            }
+            generator.writeEndArray();
+            writeColumn(generator, "positions", buffer.positions, size);
+            writeColumn(generator, "startOffsets", buffer.startOffsets, size);
+            writeColumn(generator, "endOffsets", buffer.endOffsets, size);
+            writeColumn(generator, "positionLengths", buffer.positionLengths, size);
+            writeColumn(generator, "typeIds", buffer.typeIds, size);
+            generator.writeArrayFieldStart("typeNames");
+            for (String type : buffer.typeNames) {
+                generator.writeString(type);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("keywords");
+            for (int i = 0; i < size; i++) {
+                generator.writeBoolean(buffer.isKeyword(i));
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        private static void writeColumn(JsonGenerator generator, String name, int[] column, int size)
+                throws IOException {
+            generator.writeFieldName(name);
+            generator.writeArray(column, 0, size);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.mongodb.lucene.model;
+
+import java.util.List;
+
+/**
+ * The token stream after the tokenizer and after each token filter of a custom analyzer, recorded
+ * in one pass. All stages share one {@link TokenBuffer}; {@code tokenStages} gives the stage index
+ * of each of its tokens, so the rows of one stage are those carrying its index. Positions count
+ * from 0 within each stage and offsets refer to the original text.
+ * <p>
+ * The char-filtered text is what the tokenizer read. Offset corrections map it back to the
+ * original: from {@code filteredOffsets[i]} on, a filtered offset f corresponds to original
+ * offset {@code f - filteredOffsets[i] + originalOffsets[i]}, until the next correction point.
+ */
+public class TokenTrace {
+    private String filteredText;
+    private int[] filteredOffsets;
+    private int[] originalOffsets;
+    private List<String> stages; // The tokenizer type, then each token filter type
+    private int[] tokenStages;
+    private TokenBuffer tokens;
+
+    // Constructors
+    public TokenTrace() {}
+
+    public TokenTrace(String filteredText, int[] filteredOffsets, int[] originalOffsets,
+                      List<String> stages, int[] tokenStages, TokenBuffer tokens) {
+        this.filteredText = filteredText;
+        this.filteredOffsets = filteredOffsets;
+        this.originalOffsets = originalOffsets;
+        this.stages = stages;
+        this.tokenStages = tokenStages;
+        this.tokens = tokens;
+    }
+
+    // Getters and Setters
+    public String getFilteredText() {
+        return filteredText;
+    }
+
+    public void setFilteredText(String filteredText) {
+        this.filteredText = filteredText;
+    }
+
+    public int[] getFilteredOffsets() {
+        return filteredOffsets;
+    }
+
+    public void setFilteredOffsets(int[] filteredOffsets) {
+        this.filteredOffsets = filteredOffsets;
+    }
+
+    public int[] getOriginalOffsets() {
+        return originalOffsets;
+    }
+
+    public void setOriginalOffsets(int[] originalOffsets) {
+        this.originalOffsets = originalOffsets;
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<String> stages) {
+        this.stages = stages;
+    }
+
+    public int[] getTokenStages() {
+        return tokenStages;
+    }
+
+    public void setTokenStages(int[] tokenStages) {
+        this.tokenStages = tokenStages;
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(TokenBuffer tokens) {
+        this.tokens = tokens;
+    }
+}
@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.util.Map;
 import java.util.Set;
 
-@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", visible = true)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
 @JsonSubTypes({
     @JsonSubTypes.Type(value = CharFilterDefinition.HtmlStripCharFilter.class, name = "htmlStrip"),
     @JsonSubTypes.Type(value = CharFilterDefinition.IcuNormalizeCharFilter.class, name = "icuNormalize"),
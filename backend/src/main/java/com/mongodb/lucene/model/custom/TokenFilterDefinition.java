@@ -1,12 +1,13 @@
 package com.mongodb.lucene.model.custom;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.util.List;
 import java.util.regex.Pattern;
 
-@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", visible = true)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
 @JsonSubTypes({
     @JsonSubTypes.Type(value = TokenFilterDefinition.AsciiFoldingFilter.class, name = "asciiFolding"),
     @JsonSubTypes.Type(value = TokenFilterDefinition.DaitchMokotoffSoundexFilter.class, name = "daitchMokotoffSoundex"),
@@ -240,6 +241,7 @@ public abstract class TokenFilterDefinition {
             this.compiledPattern = null;
         }
 
+        @JsonIgnore
         public Pattern getCompiledPattern() {
             if (compiledPattern == null && pattern != null) {
                 compiledPattern = Pattern.compile(pattern);
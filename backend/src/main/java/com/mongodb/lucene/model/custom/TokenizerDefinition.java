@@ -1,11 +1,12 @@
 package com.mongodb.lucene.model.custom;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.util.regex.Pattern;
 
-@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", visible = true)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
 @JsonSubTypes({
     @JsonSubTypes.Type(value = TokenizerDefinition.EdgeGramTokenizer.class, name = "edgeGram"),
     @JsonSubTypes.Type(value = TokenizerDefinition.KeywordTokenizer.class, name = "keyword"),
@@ -102,6 +103,7 @@ public abstract class TokenizerDefinition {
             this.compiledPattern = null; // Reset compiled pattern
         }
 
+        @JsonIgnore
         public Pattern getCompiledPattern() {
             if (compiledPattern == null && pattern != null) {
                 compiledPattern = Pattern.compile(pattern);
@@ -134,6 +136,7 @@ public abstract class TokenizerDefinition {
             this.compiledPattern = null; // Reset compiled pattern
         }
 
+        @JsonIgnore
         public Pattern getCompiledPattern() {
             if (compiledPattern == null && pattern != null) {
                 compiledPattern = Pattern.compile(pattern);
@@ -0,0 +1,157 @@
+package com.mongodb.lucene.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pool for CPU-bound analysis work.
+ * When the queue is full the submitting thread waits for room, which throttles producers
+ * instead of rejecting work; the task still runs on a worker, never on the caller. Deliberately
+ * not exposed as an {@code Executor} bean so it does not replace Spring's application task executor.
+ * <p>
+ * Requests are handled on virtual threads, but analysis runs here on a fixed set of platform
+ * threads so CPU-bound tokenization is not multiplexed onto the virtual thread carriers.
+ */
+@Component
+public class AnalysisExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public AnalysisExecutor(
+        @Value("${analyzer.executor.threads:0}") int threads,
+        @Value("${analyzer.executor.queue-capacity:1024}") int queueCapacity
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new WorkerThread(runnable, "analysis-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new WaitForRoomPolicy()
+        );
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Run the tasks concurrently and return their results in order. If any task fails, the others
+     * are cancelled and its exception is rethrown. Called from a worker thread, the tasks run inline
+     * instead, so nested use can never starve the pool.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (Thread.currentThread() instanceof WorkerThread) {
+            for (Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+            // Wait in completion order so the first failure cancels the rest straight away
+            for (int i = 0; i < tasks.size(); i++) {
+                completion.take().get();
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for analysis");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static <T> T call(Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(cause);
+    }
+
+    /**
+     * Number of worker threads.
+     */
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Put a task the queue had no room for once room frees up. Callers are virtual threads, which
+     * park cheaply, and workers never submit, so waiting cannot starve the pool.
+     */
+    private static final class WaitForRoomPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Analysis executor is shut down");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for room in the analysis queue", e);
+            }
+            // Shut down while waiting: the task would never run
+            if (executor.isShutdown() && executor.remove(task)) {
+                throw new RejectedExecutionException("Analysis executor is shut down");
+            }
+        }
+    }
+
+    private static final class WorkerThread extends Thread {
+        private WorkerThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
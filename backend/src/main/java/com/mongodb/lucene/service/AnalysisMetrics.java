@@ -0,0 +1,126 @@
+package com.mongodb.lucene.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for analysis work and API requests. Meters are looked up once per tag
+ * combination and kept, so recording on the hot path is a map lookup and an atomic update.
+ * Inline custom definitions are tagged {@code custom} as a whole, which keeps tag cardinality
+ * bounded; registered custom analyzers are few and tagged by their {@code custom.<name>}.
+ */
+@Component
+public class AnalysisMetrics {
+
+    private static final String CUSTOM_TAG = "custom";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final Map<String, AnalyzerMeters> analyzerMeters = new ConcurrentHashMap<>();
+    private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Record one tokenization: time spent, tokens produced and characters consumed.
+     * Pass a negative character count when it is not known.
+     */
+    public void recordAnalysis(String analyzerKey, String side, String autocomplete,
+                               long nanos, long tokens, long chars) {
+        String analyzer = analyzerTag(analyzerKey);
+        AnalyzerMeters meters = analyzerMeters.computeIfAbsent(
+            analyzer + '|' + side + '|' + autocomplete,
+            key -> new AnalyzerMeters(registry, analyzer, side, autocomplete)
+        );
+        meters.time.record(nanos, TimeUnit.NANOSECONDS);
+        meters.tokens.increment(tokens);
+        if (chars >= 0) {
+            meters.chars.increment(chars);
+        }
+    }
+
+    /**
+     * Record the body size of an API request.
+     */
+    public void recordRequestSize(String endpoint, long bytes) {
+        endpoint(endpoint).requestSize.record(bytes);
+    }
+
+    /**
+     * Record a request that was turned away as invalid (4xx).
+     */
+    public void recordRejected(String endpoint) {
+        endpoint(endpoint).rejected.increment();
+    }
+
+    /**
+     * Record a request that failed with a server error (5xx or an exception).
+     */
+    public void recordFailed(String endpoint) {
+        endpoint(endpoint).failed.increment();
+    }
+
+    private EndpointMeters endpoint(String endpoint) {
+        return endpointMeters.computeIfAbsent(endpoint, key -> new EndpointMeters(registry, key));
+    }
+
+    static String analyzerTag(String analyzerKey) {
+        if (analyzerKey.startsWith(CustomAnalyzerRegistry.NAME_PREFIX)) {
+            // Registered analyzers are tagged by name, without the definition fingerprint
+            return analyzerKey.substring(0, analyzerKey.lastIndexOf('@'));
+        }
+        return analyzerKey.startsWith(CustomAnalyzerCache.KEY_PREFIX) ? CUSTOM_TAG : analyzerKey;
+    }
+
+    private static final class AnalyzerMeters {
+        private final Timer time;
+        private final Counter tokens;
+        private final Counter chars;
+
+        private AnalyzerMeters(MeterRegistry registry, String analyzer, String side, String autocomplete) {
+            this.time = Timer.builder("analyzer.analysis")
+                .description("Time spent tokenizing text (result cache misses only)")
+                .tags("analyzer", analyzer, "side", side, "autocomplete", autocomplete)
+                .publishPercentileHistogram()
+                .register(registry);
+            this.tokens = Counter.builder("analyzer.tokens")
+                .description("Tokens produced")
+                .tags("analyzer", analyzer, "side", side, "autocomplete", autocomplete)
+                .register(registry);
+            this.chars = Counter.builder("analyzer.chars")
+                .description("Characters of text consumed")
+                .tags("analyzer", analyzer, "side", side, "autocomplete", autocomplete)
+                .register(registry);
+        }
+    }
+
+    private static final class EndpointMeters {
+        private final DistributionSummary requestSize;
+        private final Counter rejected;
+        private final Counter failed;
+
+        private EndpointMeters(MeterRegistry registry, String endpoint) {
+            this.requestSize = DistributionSummary.builder("analyzer.request.size")
+                .description("Request body size")
+                .baseUnit("bytes")
+                .tags("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry);
+            this.rejected = Counter.builder("analyzer.requests.rejected")
+                .description("Requests rejected as invalid")
+                .tags("endpoint", endpoint)
+                .register(registry);
+            this.failed = Counter.builder("analyzer.requests.failed")
+                .description("Requests that failed with a server error")
+                .tags("endpoint", endpoint)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mongodb.lucene.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide pool of heavy, immutable analysis artifacts (stop sets, char maps, normalizers,
+ * stemmer tables, patterns). Artifacts are keyed by their content and reference-counted, so every
+ * analyzer that needs the same artifact shares one instance and it is dropped once the last
+ * analyzer using it has been closed. Pooled artifacts must never be mutated.
+ */
+public final class AnalysisResourcePool {
+
+    private static final AnalysisResourcePool SHARED = new AnalysisResourcePool();
+
+    private final Map<List<Object>, Entry> entries = new HashMap<>();
+
+    /**
+     * The pool shared by all analyzers in this process.
+     */
+    public static AnalysisResourcePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Acquire the artifact of the given kind built from the given content, creating it on first use.
+     * The content must be an immutable value with content-based equals and hashCode.
+     */
+    public <T> Resource<T> acquire(String kind, Object content, Supplier<T> factory) {
+        List<Object> key = List.of(kind, content);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(factory.get());
+                entries.put(key, entry);
+            }
+            entry.refCount++;
+            @SuppressWarnings("unchecked")
+            T value = (T) entry.value;
+            return new Resource<>(this, key, value);
+        }
+    }
+
+    private void release(List<Object> key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && --entry.refCount == 0) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Number of distinct artifacts currently held.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * A counted reference to a pooled artifact; closing it releases the reference.
+     */
+    public static final class Resource<T> implements AutoCloseable {
+        private final AnalysisResourcePool pool;
+        private final List<Object> key;
+        private final T value;
+        private boolean closed;
+
+        private Resource(AnalysisResourcePool pool, List<Object> key, T value) {
+            this.pool = pool;
+            this.key = key;
+            this.value = value;
+        }
+
+        public T get() {
+            return value;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                pool.release(key);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private int refCount;
+
+        private Entry(Object value) {
+            this.value = value;
+        }
+    }
+}
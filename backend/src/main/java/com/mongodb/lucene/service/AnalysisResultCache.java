@@ -0,0 +1,349 @@
+package com.mongodb.lucene.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of analysis results (the analyzed tokens of a text) bounded by the memory they take up.
+ * Eviction follows W-TinyLFU: new results enter a small LRU window, and a result leaving the
+ * window only displaces entries of the main LRU region if a frequency sketch says it has been
+ * requested more often than they have. One-off texts therefore never flush results that are
+ * asked for again and again. Every entry also expires a fixed time after it was written.
+ */
+@Component
+public class AnalysisResultCache {
+
+    // Rough per-entry overhead on top of the result itself
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long mainMaxWeight;
+    private final long expireAfterWriteNanos;
+
+    private final LinkedHashMap<Key, Node> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Node> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long windowWeight;
+    private long mainWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public AnalysisResultCache(
+        @Value("${analyzer.result-cache.max-weight:64MB}") DataSize maxWeight,
+        @Value("${analyzer.result-cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        if (maxWeight.isNegative()) {
+            throw new IllegalArgumentException("analyzer.result-cache.max-weight must not be negative");
+        }
+        this.maxWeight = maxWeight.toBytes();
+        this.windowMaxWeight = Math.max(1, this.maxWeight / 100);
+        this.mainMaxWeight = this.maxWeight - windowMaxWeight;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.sketch = new FrequencySketch(this.maxWeight / 1024);
+    }
+
+    /**
+     * Build the cache key for analyzing a text with an analyzer. The text is reduced to its SHA-256
+     * digest so the cache never holds on to request bodies.
+     */
+    public static Key key(String analyzerKey, String text, boolean isQuery, String autocompleteKey) {
+        return new Key(analyzerKey, digest(text), isQuery, autocompleteKey);
+    }
+
+    /**
+     * Cached tokens for the key, or null on a miss. The result must not be modified.
+     */
+    public AnalyzedText get(Key key) {
+        if (maxWeight == 0) {
+            return null;
+        }
+        synchronized (this) {
+            sketch.increment(key.hashCode());
+            Node node = window.get(key);
+            boolean inWindow = node != null;
+            if (node == null) {
+                node = main.get(key);
+            }
+            if (node != null && node.isExpired(System.nanoTime())) {
+                remove(key, node, inWindow);
+                expirations.incrementAndGet();
+                node = null;
+            }
+            if (node == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return node.tokens;
+        }
+    }
+
+    /**
+     * Store the completed analysis computed for a key.
+     */
+    public void put(Key key, AnalyzedText tokens) {
+        if (maxWeight == 0) {
+            return;
+        }
+        Node node = new Node(tokens, ENTRY_OVERHEAD + tokens.ramBytesUsed(), System.nanoTime() + expireAfterWriteNanos);
+        synchronized (this) {
+            Node previous = window.remove(key);
+            if (previous != null) {
+                windowWeight -= previous.weight;
+            } else if ((previous = main.remove(key)) != null) {
+                mainWeight -= previous.weight;
+            }
+            window.put(key, node);
+            windowWeight += node.weight;
+            purgeExpired(window, true);
+            purgeExpired(main, false);
+            evictWindow();
+        }
+    }
+
+    private void remove(Key key, Node node, boolean inWindow) {
+        if (inWindow) {
+            window.remove(key);
+            windowWeight -= node.weight;
+        } else {
+            main.remove(key);
+            mainWeight -= node.weight;
+        }
+    }
+
+    /**
+     * Drop expired entries from the least recently used end of a region.
+     */
+    private void purgeExpired(LinkedHashMap<Key, Node> region, boolean inWindow) {
+        long now = System.nanoTime();
+        Iterator<Node> it = region.values().iterator();
+        while (it.hasNext()) {
+            Node node = it.next();
+            if (!node.isExpired(now)) {
+                break;
+            }
+            it.remove();
+            if (inWindow) {
+                windowWeight -= node.weight;
+            } else {
+                mainWeight -= node.weight;
+            }
+            expirations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Move entries overflowing the window into the main region, subject to admission.
+     */
+    private void evictWindow() {
+        Iterator<Map.Entry<Key, Node>> it = window.entrySet().iterator();
+        while (windowWeight > windowMaxWeight && it.hasNext()) {
+            Map.Entry<Key, Node> candidate = it.next();
+            it.remove();
+            windowWeight -= candidate.getValue().weight;
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Admit a candidate into the main region if it is requested more often than every entry it
+     * would displace. Victims are only removed once the candidate has won against all of them.
+     */
+    private void admit(Key key, Node candidate) {
+        if (candidate.weight > mainMaxWeight) {
+            rejections.incrementAndGet();
+            return;
+        }
+        int candidateFrequency = sketch.frequency(key.hashCode());
+        long freed = 0;
+        int victims = 0;
+        // Iterating does not reorder an access-ordered map, only lookups do
+        for (Map.Entry<Key, Node> victim : main.entrySet()) {
+            if (mainWeight - freed + candidate.weight <= mainMaxWeight) {
+                break;
+            }
+            if (candidateFrequency <= sketch.frequency(victim.getKey().hashCode())) {
+                rejections.incrementAndGet();
+                return;
+            }
+            freed += victim.getValue().weight;
+            victims++;
+        }
+        Iterator<Node> it = main.values().iterator();
+        for (int i = 0; i < victims; i++) {
+            it.next();
+            it.remove();
+        }
+        mainWeight -= freed;
+        evictions.addAndGet(victims);
+        main.put(key, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    private static byte[] digest(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    /**
+     * Estimated bytes held by cached results.
+     */
+    public synchronized long getWeightedSize() {
+        return windowWeight + mainWeight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Results that were not admitted because they were requested less often than what they would replace.
+     */
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /**
+     * Identifies one analysis: the analyzer, the text digest, the side and the autocomplete settings.
+     */
+    public static final class Key {
+        private final String analyzerKey;
+        private final byte[] textDigest;
+        private final boolean query;
+        private final String autocompleteKey;
+        private final int hash;
+
+        private Key(String analyzerKey, byte[] textDigest, boolean query, String autocompleteKey) {
+            this.analyzerKey = analyzerKey;
+            this.textDigest = textDigest;
+            this.query = query;
+            this.autocompleteKey = autocompleteKey;
+            this.hash = Objects.hash(analyzerKey, Arrays.hashCode(textDigest), query, autocompleteKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return query == other.query
+                && analyzerKey.equals(other.analyzerKey)
+                && Arrays.equals(textDigest, other.textDigest)
+                && Objects.equals(autocompleteKey, other.autocompleteKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Node {
+        private final AnalyzedText tokens;
+        private final long weight;
+        private final long expiresAt;
+
+        private Node(AnalyzedText tokens, long weight, long expiresAt) {
+            this.tokens = tokens;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating how often each key has been requested.
+     * All counters are halved periodically so the estimate favours recent popularity.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0x0ba0fc7b, 0x7b0de2b5, 0x3c6ef372};
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.max(256, Math.min(expectedEntries, 1 << 20)) - 1) << 1;
+            this.counters = new byte[DEPTH * width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>= 1;
+            }
+            additions /= 2;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.TokenBuffer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.BytesRefHash;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The result of analyzing one text: every token in a {@link TokenBuffer}, plus its distinct terms
+ * interned as UTF-8 in a {@link BytesRefHash}. Term ids follow the order of first appearance, and
+ * each token records the id of its term, so matching and deduplication work on ids instead of
+ * re-hashing strings. Terms longer than the hash can hold (a keyword token of a long text, say)
+ * are kept in a side map instead and get ids in the same sequence.
+ * <p>
+ * Filled once during tokenization and read-only afterwards; finished instances are cached and
+ * shared between requests, which is safe because lookups never modify the hash.
+ */
+public final class AnalyzedText {
+    private final TokenBuffer tokens = new TokenBuffer();
+    private final BytesRefHash terms = new BytesRefHash();
+    // Terms over IndexWriter.MAX_TERM_LENGTH bytes, which BytesRefHash rejects
+    private final Map<BytesRef, Integer> oversizedTerms = new HashMap<>();
+    private final BytesRefBuilder scratch = new BytesRefBuilder();
+    private int[] termIds = new int[16];
+    private int[] firstTokens = new int[16];
+    // Hash id of each term id, or -1 for oversized terms, and the reverse mapping
+    private int[] hashIds = new int[16];
+    private int[] idsByHash = new int[16];
+    private int termCount;
+    private volatile TermDictionary dictionary;
+
+    AnalyzedText() {}
+
+    /**
+     * Append a token, interning its term.
+     */
+    void add(char[] term, int length, int position, int startOffset, int endOffset,
+             int positionLength, String type, int flags) {
+        int index = tokens.size();
+        tokens.add(term, length, position, startOffset, endOffset, positionLength, type, flags);
+
+        scratch.copyChars(term, 0, length);
+        int id;
+        if (scratch.length() > IndexWriter.MAX_TERM_LENGTH) {
+            Integer existing = oversizedTerms.get(scratch.get());
+            if (existing != null) {
+                id = existing;
+            } else {
+                id = newTerm(index, -1);
+                oversizedTerms.put(scratch.toBytesRef(), id);
+            }
+        } else {
+            int hashId = terms.add(scratch.get());
+            if (hashId < 0) {
+                id = idsByHash[-hashId - 1];
+            } else {
+                id = newTerm(index, hashId);
+                idsByHash = ArrayUtil.grow(idsByHash, hashId + 1);
+                idsByHash[hashId] = id;
+            }
+        }
+        termIds = ArrayUtil.grow(termIds, index + 1);
+        termIds[index] = id;
+    }
+
+    private int newTerm(int firstToken, int hashId) {
+        int id = termCount++;
+        firstTokens = ArrayUtil.grow(firstTokens, id + 1);
+        firstTokens[id] = firstToken;
+        hashIds = ArrayUtil.grow(hashIds, id + 1);
+        hashIds[id] = hashId;
+        return id;
+    }
+
+    /**
+     * Release spare capacity once all tokens have been added.
+     */
+    void finish() {
+        tokens.trim();
+        termIds = ArrayUtil.copyOfSubArray(termIds, 0, tokens.size());
+        firstTokens = ArrayUtil.copyOfSubArray(firstTokens, 0, termCount);
+        hashIds = ArrayUtil.copyOfSubArray(hashIds, 0, termCount);
+        idsByHash = ArrayUtil.copyOfSubArray(idsByHash, 0, terms.size());
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Number of distinct terms.
+     */
+    public int termCount() {
+        return termCount;
+    }
+
+    /**
+     * Term id of the token at the given index.
+     */
+    public int termId(int tokenIndex) {
+        return termIds[tokenIndex];
+    }
+
+    /**
+     * Text of a term, decoded from the token buffer rather than from UTF-8.
+     */
+    public String term(int termId) {
+        return tokens.term(firstTokens[termId]);
+    }
+
+    /**
+     * UTF-8 bytes of a term, filled into the given scratch reference.
+     */
+    public BytesRef termBytes(int termId, BytesRef scratch) {
+        int hashId = hashIds[termId];
+        if (hashId >= 0) {
+            return terms.get(hashId, scratch);
+        }
+        BytesRef bytes = new BytesRef(term(termId));
+        scratch.bytes = bytes.bytes;
+        scratch.offset = bytes.offset;
+        scratch.length = bytes.length;
+        return scratch;
+    }
+
+    /**
+     * Id of a term given as UTF-8 bytes, or -1 if this text does not contain it.
+     */
+    public int findTerm(BytesRef term) {
+        if (term.length > IndexWriter.MAX_TERM_LENGTH) {
+            Integer id = oversizedTerms.get(term);
+            return id != null ? id : -1;
+        }
+        int hashId = terms.find(term);
+        return hashId >= 0 ? idsByHash[hashId] : -1;
+    }
+
+    /**
+     * Sorted dictionary of the distinct terms, built on first use.
+     */
+    TermDictionary getTermDictionary() {
+        TermDictionary result = dictionary;
+        if (result == null) {
+            // Racing threads build equal dictionaries; whichever is stored last wins
+            result = new TermDictionary(this);
+            dictionary = result;
+        }
+        return result;
+    }
+
+    /**
+     * Approximate heap footprint.
+     */
+    public long ramBytesUsed() {
+        long oversized = 0;
+        for (BytesRef term : oversizedTerms.keySet()) {
+            oversized += term.length;
+        }
+        return tokens.ramBytesUsed() + terms.ramBytesUsed() + oversized
+            + 4L * (termIds.length + firstTokens.length + hashIds.length + idsByHash.length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.AutocompleteConfig;
+import com.mongodb.lucene.model.StageProfile;
+import com.mongodb.lucene.model.TokenTrace;
+import org.apache.lucene.analysis.Analyzer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request's hold on a {@link SharedAnalyzer}. Closing the lease releases the reference;
+ * the analyzer itself must never be closed by the holder.
+ */
+public final class AnalyzerLease implements AutoCloseable {
+    private final SharedAnalyzer shared;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Autocomplete wrappers the shared analyzer had no room to cache, closed with the lease
+    private final Map<String, Analyzer> ownedAutocompleteAnalyzers = new ConcurrentHashMap<>();
+
+    AnalyzerLease(SharedAnalyzer shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Stable identity of the analyzer: the predefined name or the custom definition fingerprint.
+     */
+    public String getKey() {
+        return shared.getKey();
+    }
+
+    public Analyzer getAnalyzer() {
+        return shared.getAnalyzer();
+    }
+
+    /**
+     * The autocomplete wrapper around this analyzer for the given settings, valid while the lease is open.
+     */
+    public Analyzer getAutocompleteAnalyzer(AutocompleteConfig config, boolean query) {
+        Analyzer wrapper = shared.autocomplete(config, query);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        return ownedAutocompleteAnalyzers.computeIfAbsent(AutocompleteAnalyzer.key(config, query),
+            k -> shared.uncachedAutocomplete(config, query));
+    }
+
+    /**
+     * Time each stage of the chain while analyzing the text, using an uncached instrumented copy
+     * so the shared analyzer stays unaffected. Returns null if this is not a custom analyzer.
+     */
+    public List<StageProfile> profile(String text) throws IOException {
+        return shared.profile(text);
+    }
+
+    /**
+     * Record the tokens after the tokenizer and after each token filter in one pass over the text,
+     * using an uncached instrumented copy of the chain. Returns null if this is not a custom analyzer.
+     */
+    public TokenTrace trace(String text) throws IOException {
+        return shared.trace(text);
+    }
+
+    /**
+     * Take a separate lease on the same analyzer, for holders that outlive this one.
+     */
+    public AnalyzerLease duplicate() {
+        AnalyzerLease copy = shared.acquire();
+        if (copy == null) {
+            throw new IllegalStateException("Analyzer already closed: " + getKey());
+        }
+        return copy;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            ownedAutocompleteAnalyzers.values().forEach(Analyzer::close);
+            ownedAutocompleteAnalyzers.clear();
+            shared.release();
+        }
+    }
+}
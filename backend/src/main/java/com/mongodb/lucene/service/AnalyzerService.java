@@ -1,60 +1,56 @@
 package com.mongodb.lucene.service;
 
+import com.mongodb.lucene.model.AnalyzeRequest;
+import com.mongodb.lucene.model.AnalyzeResponse;
 import com.mongodb.lucene.model.AnalyzerDetail;
 import com.mongodb.lucene.model.AutocompleteConfig;
+import com.mongodb.lucene.model.TokenBuffer;
 import com.mongodb.lucene.model.TokenInfo;
 import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
 import org.apache.lucene.analysis.*;
-import org.apache.lucene.analysis.ar.ArabicAnalyzer;
-import org.apache.lucene.analysis.bg.BulgarianAnalyzer;
-import org.apache.lucene.analysis.br.BrazilianAnalyzer;
-import org.apache.lucene.analysis.ca.CatalanAnalyzer;
-import org.apache.lucene.analysis.cjk.CJKAnalyzer;
-import org.apache.lucene.analysis.ckb.SoraniAnalyzer;
-import org.apache.lucene.analysis.core.*;
-import org.apache.lucene.analysis.cz.CzechAnalyzer;
-import org.apache.lucene.analysis.da.DanishAnalyzer;
-import org.apache.lucene.analysis.de.GermanAnalyzer;
-import org.apache.lucene.analysis.el.GreekAnalyzer;
-import org.apache.lucene.analysis.en.EnglishAnalyzer;
-import org.apache.lucene.analysis.es.SpanishAnalyzer;
-import org.apache.lucene.analysis.eu.BasqueAnalyzer;
-import org.apache.lucene.analysis.fa.PersianAnalyzer;
-import org.apache.lucene.analysis.fi.FinnishAnalyzer;
-import org.apache.lucene.analysis.fr.FrenchAnalyzer;
-import org.apache.lucene.analysis.ga.IrishAnalyzer;
-import org.apache.lucene.analysis.gl.GalicianAnalyzer;
-import org.apache.lucene.analysis.hi.HindiAnalyzer;
-import org.apache.lucene.analysis.hu.HungarianAnalyzer;
-import org.apache.lucene.analysis.hy.ArmenianAnalyzer;
-import org.apache.lucene.analysis.id.IndonesianAnalyzer;
-import org.apache.lucene.analysis.it.ItalianAnalyzer;
-import org.apache.lucene.analysis.lv.LatvianAnalyzer;
-import org.apache.lucene.analysis.miscellaneous.TruncateTokenFilter;
-import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
-import org.apache.lucene.analysis.ngram.NGramTokenFilter;
-import org.apache.lucene.analysis.nl.DutchAnalyzer;
-import org.apache.lucene.analysis.no.NorwegianAnalyzer;
-import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
-import org.apache.lucene.analysis.ro.RomanianAnalyzer;
-import org.apache.lucene.analysis.ru.RussianAnalyzer;
-import org.apache.lucene.analysis.shingle.ShingleFilter;
-import org.apache.lucene.analysis.standard.StandardAnalyzer;
-import org.apache.lucene.analysis.sv.SwedishAnalyzer;
-import org.apache.lucene.analysis.th.ThaiAnalyzer;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
-import org.apache.lucene.analysis.tr.TurkishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 @Service
 public class AnalyzerService {
 
     private static final String CATEGORY_BASE = "base";
     private static final String CATEGORY_LANGUAGE = "language";
+    private static final String CATEGORY_CUSTOM = "custom";
+
+    @Autowired
+    private PredefinedAnalyzerRegistry predefinedAnalyzers;
+
+    @Autowired
+    private CustomAnalyzerCache customAnalyzers;
+
+    @Autowired
+    private CustomAnalyzerRegistry registeredAnalyzers;
+
+    @Autowired
+    private AnalysisResultCache resultCache;
+
+    @Autowired
+    private AnalysisExecutor analysisExecutor;
+
+    @Autowired
+    private AnalysisMetrics metrics;
+
+    // Identical analyses running at the same time share one tokenization
+    private final SingleFlight<AnalysisResultCache.Key, AnalyzedText> inFlight = new SingleFlight<>();
 
     /**
      * Get all available analyzers
@@ -91,214 +87,333 @@ public class AnalyzerService {
         analyzers.add(new AnalyzerDetail("lucene.indonesian", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.irish", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.italian", CATEGORY_LANGUAGE));
+        analyzers.add(dictionaryAnalyzer("lucene.kuromoji", "(Japanese)"));
         analyzers.add(new AnalyzerDetail("lucene.latvian", CATEGORY_LANGUAGE));
+        analyzers.add(dictionaryAnalyzer("lucene.morfologik", "(Polish)"));
         analyzers.add(new AnalyzerDetail("lucene.norwegian", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.persian", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.portuguese", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.romanian", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.russian", CATEGORY_LANGUAGE));
+        analyzers.add(dictionaryAnalyzer("lucene.smartcn", "(Chinese)"));
         analyzers.add(new AnalyzerDetail("lucene.sorani", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.spanish", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.swedish", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.thai", CATEGORY_LANGUAGE));
         analyzers.add(new AnalyzerDetail("lucene.turkish", CATEGORY_LANGUAGE));
 
+        // Registered custom analyzers
+        for (CustomAnalyzerDefinition definition : registeredAnalyzers.getDefinitions()) {
+            analyzers.add(new AnalyzerDetail(CustomAnalyzerRegistry.NAME_PREFIX + definition.getName(), CATEGORY_CUSTOM));
+        }
+
         return analyzers;
     }
 
     /**
-     * Get analyzer instance by name or custom definition
+     * Catalog entry for an analyzer whose dictionary loads on first use, with the cost of that
+     * load once it has happened.
      */
-    public Analyzer getAnalyzer(String analyzerName, CustomAnalyzerDefinition customDefinition) {
+    private static AnalyzerDetail dictionaryAnalyzer(String name, String label) {
+        AnalyzerDetail detail = new AnalyzerDetail(name, CATEGORY_LANGUAGE, false, label);
+        SharedDictionary<?> dictionary = PredefinedAnalyzerRegistry.getDictionary(name);
+        detail.setDictionaryLoaded(dictionary.isLoaded());
+        if (dictionary.isLoaded()) {
+            detail.setDictionaryLoadMillis(dictionary.getLoadMillis());
+            if (dictionary.getHeapBytes() >= 0) {
+                detail.setDictionaryHeapBytes(dictionary.getHeapBytes());
+            }
+            if (dictionary.getDirectBytes() >= 0) {
+                detail.setDictionaryDirectBytes(dictionary.getDirectBytes());
+            }
+        }
+        return detail;
+    }
+
+    /**
+     * Lease an analyzer instance by name or custom definition.
+     * The lease must be closed once the analyzer is no longer used.
+     */
+    public AnalyzerLease acquireAnalyzer(String analyzerName, CustomAnalyzerDefinition customDefinition) {
         // If custom definition is provided, use it
         if (customDefinition != null) {
-            return CustomAnalyzerFactory.build(customDefinition);
+            return customAnalyzers.acquire(customDefinition);
         }
         
+        // Then a registered custom analyzer referenced by name
+        if (analyzerName != null && analyzerName.startsWith(CustomAnalyzerRegistry.NAME_PREFIX)) {
+            return registeredAnalyzers.acquire(analyzerName.substring(CustomAnalyzerRegistry.NAME_PREFIX.length()));
+        }
+
         // Otherwise, fall back to predefined analyzer
-        return getAnalyzer(analyzerName);
+        return predefinedAnalyzers.acquire(analyzerName);
     }
 
     /**
-     * Get analyzer instance by name
+     * Analyze the index and query text of a request and mark the tokens they share
      */
-    public Analyzer getAnalyzer(String analyzerName) {
-        switch (analyzerName.toLowerCase()) {
-            // Base analyzers - use empty stopword set for standard to match Atlas Search behavior
-            case "lucene.standard":
-                return new StandardAnalyzer(CharArraySet.EMPTY_SET);
-            case "lucene.whitespace":
-                return new WhitespaceAnalyzer();
-            case "lucene.simple":
-                return new SimpleAnalyzer();
-            case "lucene.keyword":
-                return new KeywordAnalyzer();
-
-            // Language-specific analyzers
-            case "lucene.arabic":
-                return new ArabicAnalyzer();
-            case "lucene.armenian":
-                return new ArmenianAnalyzer();
-            case "lucene.basque":
-                return new BasqueAnalyzer();
-            case "lucene.brazilian":
-                return new BrazilianAnalyzer();
-            case "lucene.bulgarian":
-                return new BulgarianAnalyzer();
-            case "lucene.catalan":
-                return new CatalanAnalyzer();
-            case "lucene.cjk":
-                return new CJKAnalyzer();
-            case "lucene.czech":
-                return new CzechAnalyzer();
-            case "lucene.danish":
-                return new DanishAnalyzer();
-            case "lucene.dutch":
-                return new DutchAnalyzer();
-            case "lucene.english":
-                return new EnglishAnalyzer();
-            case "lucene.finnish":
-                return new FinnishAnalyzer();
-            case "lucene.french":
-                return new FrenchAnalyzer();
-            case "lucene.galician":
-                return new GalicianAnalyzer();
-            case "lucene.german":
-                return new GermanAnalyzer();
-            case "lucene.greek":
-                return new GreekAnalyzer();
-            case "lucene.hindi":
-                return new HindiAnalyzer();
-            case "lucene.hungarian":
-                return new HungarianAnalyzer();
-            case "lucene.indonesian":
-                return new IndonesianAnalyzer();
-            case "lucene.irish":
-                return new IrishAnalyzer();
-            case "lucene.italian":
-                return new ItalianAnalyzer();
-            case "lucene.latvian":
-                return new LatvianAnalyzer();
-            case "lucene.norwegian":
-                return new NorwegianAnalyzer();
-            case "lucene.persian":
-                return new PersianAnalyzer();
-            case "lucene.portuguese":
-                return new PortugueseAnalyzer();
-            case "lucene.romanian":
-                return new RomanianAnalyzer();
-            case "lucene.russian":
-                return new RussianAnalyzer();
-            case "lucene.sorani":
-                return new SoraniAnalyzer();
-            case "lucene.spanish":
-                return new SpanishAnalyzer();
-            case "lucene.swedish":
-                return new SwedishAnalyzer();
-            case "lucene.thai":
-                return new ThaiAnalyzer();
-            case "lucene.turkish":
-                return new TurkishAnalyzer();
-
-            default:
-                throw new IllegalArgumentException("Unknown analyzer: " + analyzerName);
+    public AnalyzeResponse analyze(AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer,
+                                   AnalyzeRequest request) throws IOException {
+        MatchMode mode = MatchMode.of(request.getMatchMode());
+        AnalyzeResponse response = mode == MatchMode.EXACT
+            ? analyzeExact(indexAnalyzer, queryAnalyzer, request)
+            : analyzePatterns(indexAnalyzer, queryAnalyzer, request, mode);
+        if (request.isProfile()) {
+            // A separate instrumented pass, so unprofiled requests and cached results never pay for it
+            response.setIndexProfile(indexAnalyzer.profile(request.getIndexText()));
+            if (mode == MatchMode.EXACT) {
+                response.setQueryProfile(queryAnalyzer.profile(request.getQueryText()));
+            }
         }
+        if (request.isExplain()) {
+            response.setIndexTrace(indexAnalyzer.trace(request.getIndexText()));
+            if (mode == MatchMode.EXACT) {
+                response.setQueryTrace(queryAnalyzer.trace(request.getQueryText()));
+            }
+        }
+        return response;
+    }
+
+    private AnalyzeResponse analyzeExact(AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer,
+                                         AnalyzeRequest request) throws IOException {
+        // Analyze the index and query text concurrently; a failure on either side cancels the other
+        List<AnalyzedText> sides = analysisExecutor.invokeAll(List.of(
+            () -> analyzeTokens(
+                indexAnalyzer,
+                request.getIndexText(),
+                false,
+                request.isUseAutocomplete(),
+                request.getAutocompleteConfig()
+            ),
+            () -> analyzeTokens(
+                queryAnalyzer,
+                request.getQueryText(),
+                true,
+                request.isUseAutocomplete(),
+                request.getAutocompleteConfig()
+            )
+        ));
+        AnalyzedText indexText = sides.get(0);
+        AnalyzedText queryText = sides.get(1);
+
+        // Match on interned term ids, then build the distinct token lists with their flags
+        TermMatcher.Match match = TermMatcher.match(indexText, queryText);
+        List<TokenInfo> indexTokens = new ArrayList<>(indexText.termCount());
+        for (int id = 0; id < indexText.termCount(); id++) {
+            indexTokens.add(new TokenInfo(indexText.term(id), match.isIndexMatched(id)));
+        }
+        List<TokenInfo> queryTokens = new ArrayList<>(queryText.termCount());
+        for (int id = 0; id < queryText.termCount(); id++) {
+            queryTokens.add(new TokenInfo(queryText.term(id), match.isQueryMatched(id)));
+        }
+        Set<String> matchingTokens = new LinkedHashSet<>();
+        match.getIndexMatched().stream().forEach(id -> matchingTokens.add(indexTokens.get(id).getText()));
+
+        // Create response
+        AnalyzeResponse response = new AnalyzeResponse(
+            indexTokens,
+            queryTokens,
+            matchingTokens,
+            analyzerName(request)
+        );
+        if (request.isIncludeDetails()) {
+            response.setIndexDetails(indexText.getTokens());
+            response.setQueryDetails(queryText.getTokens());
+        }
+        return response;
     }
 
     /**
-     * Analyze text and return tokens
+     * Match the index terms against query patterns (prefix, wildcard, regex or fuzzy).
+     * The query tokens of the response are the normalized patterns, and queryExpansions lists
+     * the index terms each pattern matched.
      */
-    public Set<TokenInfo> analyzeText(Analyzer analyzer, String text, boolean isQuery, 
-                                      boolean useAutocomplete, AutocompleteConfig config) throws IOException {
-        Set<String> tokenSet = new LinkedHashSet<>();
-        TokenStream stream = analyzer.tokenStream(null, new StringReader(text));
+    private AnalyzeResponse analyzePatterns(AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer,
+                                            AnalyzeRequest request, MatchMode mode) throws IOException {
+        if (request.getQueryText() == null) {
+            throw new IllegalArgumentException("Text to analyze is required");
+        }
+        AnalyzedText indexText = analysisExecutor.invokeAll(List.<Callable<AnalyzedText>>of(
+            () -> analyzeTokens(
+                indexAnalyzer,
+                request.getIndexText(),
+                false,
+                request.isUseAutocomplete(),
+                request.getAutocompleteConfig()
+            )
+        )).get(0);
+        List<String> patterns = queryPatterns(queryAnalyzer.getAnalyzer(), request.getQueryText());
 
-        try {
-            stream.reset();
+        TermMatcher.PatternMatch match = TermMatcher.matchPatterns(indexText, patterns, mode, request.getMaxEdits());
+        List<TokenInfo> indexTokens = new ArrayList<>(indexText.termCount());
+        for (int id = 0; id < indexText.termCount(); id++) {
+            indexTokens.add(new TokenInfo(indexText.term(id), match.isIndexMatched(id)));
+        }
+        List<TokenInfo> queryTokens = new ArrayList<>(patterns.size());
+        for (int i = 0; i < patterns.size(); i++) {
+            queryTokens.add(new TokenInfo(patterns.get(i), match.isPatternMatched(i)));
+        }
+        Set<String> matchingTokens = new LinkedHashSet<>();
+        match.getIndexMatched().stream().forEach(id -> matchingTokens.add(indexTokens.get(id).getText()));
 
-            if (useAutocomplete) {
-                if (isQuery) {
-                    // For queries, just tokenize and truncate to max grams
-                    CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
-                    while (stream.incrementToken()) {
-                        String tokenString = termAtt.toString();
-                        // Truncate to max grams
-                        TokenStream tokenStream = new KeywordTokenizer();
-                        ((KeywordTokenizer) tokenStream).setReader(new StringReader(tokenString));
-                        truncateAndAddTokens(tokenStream, tokenSet, config.getMaxGrams());
-                        // Also add original token
-                        tokenSet.add(tokenString);
-                    }
-                } else {
-                    // For index: Apply shingle filter then n-grams
-                    ShingleFilter shingleFilter = new ShingleFilter(stream, 2, 3);
-                    shingleFilter.setOutputUnigramsIfNoShingles(true);
-                    CharTermAttribute termAtt = shingleFilter.addAttribute(CharTermAttribute.class);
-
-                    while (shingleFilter.incrementToken()) {
-                        String tokenString = termAtt.toString();
-
-                        // Preserve original token
-                        TokenStream originalStream = new KeywordTokenizer();
-                        ((KeywordTokenizer) originalStream).setReader(new StringReader(tokenString));
-                        truncateAndAddTokens(originalStream, tokenSet, config.getMaxGrams());
-
-                        // Apply n-gram tokenization
-                        TokenStream nGramStream = getNGramTokenStream(tokenString, config);
-                        truncateAndAddTokens(nGramStream, tokenSet, config.getMaxGrams());
-                    }
-                }
-            } else {
-                // Simple tokenization without autocomplete
-                CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
-                while (stream.incrementToken()) {
-                    tokenSet.add(termAtt.toString());
-                }
+        AnalyzeResponse response = new AnalyzeResponse(
+            indexTokens,
+            queryTokens,
+            matchingTokens,
+            analyzerName(request)
+        );
+        response.setQueryExpansions(match.getExpansions());
+        if (request.isIncludeDetails()) {
+            response.setIndexDetails(indexText.getTokens());
+        }
+        return response;
+    }
+
+    /**
+     * Split query text on whitespace and normalize each part with the analyzer (char filters and
+     * normalizing token filters such as lowercasing, but no tokenization or stemming)
+     */
+    private static List<String> queryPatterns(Analyzer analyzer, String queryText) {
+        Set<String> patterns = new LinkedHashSet<>();
+        for (String part : queryText.trim().split("\\s+")) {
+            if (!part.isEmpty()) {
+                patterns.add(analyzer.normalize(null, part).utf8ToString());
             }
+        }
+        return new ArrayList<>(patterns);
+    }
 
+    private static String analyzerName(AnalyzeRequest request) {
+        return request.getCustomIndexAnalyzer() != null
+            ? "Custom: " + request.getCustomIndexAnalyzer().getName()
+            : request.getIndexAnalyzer();
+    }
+
+    /**
+     * Receives streamed terms; the buffer is only valid for the duration of the call
+     */
+    @FunctionalInterface
+    public interface TermConsumer {
+        void accept(char[] buffer, int length) throws IOException;
+    }
+
+    /**
+     * Number of analyses that were served by waiting on an identical one already in progress
+     */
+    public long getCoalescedCount() {
+        return inFlight.getCoalescedCount();
+    }
+
+    /**
+     * Tokenize a reader without materializing the text or the token list.
+     * Each term is handed to the consumer as soon as it is produced. The recorded time includes
+     * reading the input and writing the output, since both are interleaved with tokenization.
+     */
+    public long streamTokens(AnalyzerLease analyzer, Reader reader, TermConsumer consumer) throws IOException {
+        long start = System.nanoTime();
+        long tokenCount = 0;
+        try (TokenStream stream = analyzer.getAnalyzer().tokenStream(null, reader)) {
+            CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                consumer.accept(termAtt.buffer(), termAtt.length());
+                tokenCount++;
+            }
             stream.end();
-        } finally {
-            stream.close();
         }
+        metrics.recordAnalysis(analyzer.getKey(), "stream", "none", System.nanoTime() - start, tokenCount, -1);
+        return tokenCount;
+    }
 
-        // Convert to TokenInfo objects
+    /**
+     * Analyze text and return its distinct tokens
+     */
+    public Set<TokenInfo> analyzeText(AnalyzerLease analyzer, String text, boolean isQuery, 
+                                      boolean useAutocomplete, AutocompleteConfig config) throws IOException {
+        AnalyzedText analyzed = analyzeTokens(analyzer, text, isQuery, useAutocomplete, config);
         Set<TokenInfo> tokens = new LinkedHashSet<>();
-        for (String token : tokenSet) {
-            tokens.add(new TokenInfo(token));
+        for (int id = 0; id < analyzed.termCount(); id++) {
+            tokens.add(new TokenInfo(analyzed.term(id)));
         }
         return tokens;
     }
 
     /**
-     * Create n-gram token stream based on configuration
+     * Analyze text and return every token with its attributes. Results are cached per analyzer, text,
+     * side and autocomplete settings, and concurrent requests for the same uncached result wait for a
+     * single tokenization. The result is shared and must not be modified.
      */
-    private TokenStream getNGramTokenStream(String text, AutocompleteConfig config) throws IOException {
-        KeywordTokenizer tokenizer = new KeywordTokenizer();
-        tokenizer.setReader(new StringReader(text));
-
-        if ("edgeGram".equals(config.getAutocompleteType())) {
-            return new EdgeNGramTokenFilter(tokenizer, config.getMinGrams(), config.getMaxGrams(), false);
-        } else if ("nGram".equals(config.getAutocompleteType())) {
-            return new NGramTokenFilter(tokenizer, config.getMinGrams(), config.getMaxGrams(), false);
-        } else {
-            throw new IllegalArgumentException("Invalid autocomplete type: " + config.getAutocompleteType());
+    public AnalyzedText analyzeTokens(AnalyzerLease analyzer, String text, boolean isQuery,
+                                     boolean useAutocomplete, AutocompleteConfig config) throws IOException {
+        Analyzer effective = useAutocomplete
+            ? analyzer.getAutocompleteAnalyzer(config, isQuery)
+            : analyzer.getAnalyzer();
+        if (text == null) {
+            throw new IllegalArgumentException("Text to analyze is required");
+        }
+
+        AnalysisResultCache.Key key = AnalysisResultCache.key(
+            analyzer.getKey(),
+            text,
+            isQuery,
+            useAutocomplete ? AutocompleteAnalyzer.key(config, isQuery) : null
+        );
+        AnalyzedText tokens = resultCache.get(key);
+        if (tokens == null) {
+            tokens = inFlight.execute(key, () -> {
+                long start = System.nanoTime();
+                // The autocomplete chain marks tokens through KeywordRepeatFilter for its own use
+                AnalyzedText computed = tokenize(effective, text, !useAutocomplete);
+                metrics.recordAnalysis(
+                    analyzer.getKey(),
+                    isQuery ? "query" : "index",
+                    useAutocomplete ? config.getAutocompleteType() : "none",
+                    System.nanoTime() - start,
+                    computed.getTokens().size(),
+                    text.length()
+                );
+                resultCache.put(key, computed);
+                return computed;
+            });
         }
+        return tokens;
     }
 
     /**
-     * Truncate token stream and add tokens to set
+     * Tokenize text with an analyzer, keeping every token and its attributes and interning its terms.
+     * Keyword flags are recorded only if asked for, when they come from the analyzer's own chain.
      */
-    private void truncateAndAddTokens(TokenStream stream, Set<String> tokenSet, int maxLength) throws IOException {
-        TruncateTokenFilter truncated = new TruncateTokenFilter(stream, maxLength);
-        try {
-            truncated.reset();
-            CharTermAttribute termAtt = truncated.addAttribute(CharTermAttribute.class);
-            while (truncated.incrementToken()) {
-                tokenSet.add(termAtt.toString());
+    static AnalyzedText tokenize(Analyzer analyzer, String text, boolean keywords) throws IOException {
+        AnalyzedText tokens = new AnalyzedText();
+        try (TokenStream stream = analyzer.tokenStream(null, new StringReader(text))) {
+            CharTermAttribute termAtt = stream.addAttribute(CharTermAttribute.class);
+            PositionIncrementAttribute posIncAtt = stream.addAttribute(PositionIncrementAttribute.class);
+            PositionLengthAttribute posLenAtt = stream.addAttribute(PositionLengthAttribute.class);
+            OffsetAttribute offsetAtt = stream.addAttribute(OffsetAttribute.class);
+            TypeAttribute typeAtt = stream.addAttribute(TypeAttribute.class);
+            KeywordAttribute keywordAtt = stream.addAttribute(KeywordAttribute.class);
+            int position = -1;
+            stream.reset();
+            while (stream.incrementToken()) {
+                // Stop early when the other side of the analysis failed and this one was cancelled
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Analysis cancelled");
+                }
+                position += posIncAtt.getPositionIncrement();
+                tokens.add(
+                    termAtt.buffer(),
+                    termAtt.length(),
+                    position,
+                    offsetAtt.startOffset(),
+                    offsetAtt.endOffset(),
+                    posLenAtt.getPositionLength(),
+                    typeAtt.type(),
+                    keywords && keywordAtt.isKeyword() ? TokenBuffer.FLAG_KEYWORD : 0
+                );
             }
-            truncated.end();
-        } finally {
-            truncated.close();
+            stream.end();
         }
+        tokens.finish();
+        return tokens;
     }
 }
@@ -0,0 +1,167 @@
+package com.mongodb.lucene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.model.AnalyzeRequest;
+import com.mongodb.lucene.model.AnalyzerDetail;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms every analyzer up at startup so class loading, dictionary loading and JIT compilation
+ * happen before the first request instead of on it. Each analyzer listed by
+ * {@link AnalyzerService#getAvailableAnalyzers()}, registered custom ones included, is created and
+ * fed multilingual sample text pass after pass until a window of passes is no longer noticeably
+ * faster than the previous one, which is when its hot paths have been compiled. One full request
+ * then goes through {@link AnalyzerService#analyze} and is serialized, so the executor hand-off,
+ * term interning, matching and response writing are compiled as well.
+ * Analyzers whose large dictionaries have not been loaded yet are left alone, so they keep loading
+ * on first use instead of adding their dictionaries to every startup.
+ * <p>
+ * Spring Boot reports readiness only once application runners have finished, so the readiness
+ * probe keeps refusing traffic until the warm-up is done. The overall timeout bounds how long
+ * that can take; analyzers not reached by then are skipped.
+ */
+@Component
+public class AnalyzerWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyzerWarmup.class);
+
+    // Passes per convergence check, and the speed-up below which a window counts as converged
+    private static final int WINDOW = 20;
+    private static final double MIN_SPEEDUP = 0.05;
+
+    private static final List<String> SAMPLE_TEXTS = List.of(
+        "The quick brown fox jumped over the lazy dogs while running through the forests of Maine.",
+        "Die schnellen braunen Füchse sprangen über die faulen Hunde im Schwarzwald.",
+        "Les renards bruns rapides sautaient par-dessus les chiens paresseux près de l'église.",
+        "Los zorros marrones saltaban sobre los perros perezosos en la montaña española.",
+        "Быстрые коричневые лисы перепрыгнули через ленивых собак в заснеженном лесу.",
+        "قفزت الثعالب البنية السريعة فوق الكلاب الكسولة في الصحراء الواسعة.",
+        "敏捷的棕色狐狸跳过了懒惰的狗，然后跑进了森林。",
+        "素早い茶色の狐が怠け者の犬を飛び越えて森へ走っていった。",
+        "तेज़ भूरी लोमड़ियाँ आलसी कुत्तों के ऊपर से कूद गईं।",
+        "Οι γρήγορες καφέ αλεπούδες πήδηξαν πάνω από τα τεμπέλικα σκυλιά.",
+        "สุนัขจิ้งจอกสีน้ำตาลกระโดดข้ามสุนัขขี้เกียจ",
+        "Visit https://example.com/search?q=analyzers or mail info@example.com before 2024-12-31."
+    );
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final int maxPasses;
+    private final Duration timeout;
+
+    public AnalyzerWarmup(
+        @Value("${analyzer.warmup.enabled:true}") boolean enabled,
+        @Value("${analyzer.warmup.max-passes:200}") int maxPasses,
+        @Value("${analyzer.warmup.timeout:60s}") Duration timeout
+    ) {
+        this.enabled = enabled;
+        this.maxPasses = maxPasses;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (AnalyzerDetail detail : analyzerService.getAvailableAnalyzers()) {
+            // Dictionary-backed analyzers stay lazy: loading them is what the warm-up would cost
+            if (!detail.isDisabled() && !Boolean.FALSE.equals(detail.getDictionaryLoaded())) {
+                names.add(detail.getName());
+            }
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int warmed = 0;
+        for (String name : names) {
+            if (System.nanoTime() >= deadline) {
+                log.warn("Warm-up timed out after {}; {} of {} analyzers were not warmed up",
+                    timeout, names.size() - warmed, names.size());
+                break;
+            }
+            try {
+                warmUp(name, deadline);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Warm-up of {} failed: {}", name, e.toString());
+            }
+            warmed++;
+        }
+        log.info("Warmed up {} analyzers in {} ms", warmed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void warmUp(String name, long deadline) throws IOException {
+        long start = System.nanoTime();
+        try (AnalyzerLease lease = analyzerService.acquireAnalyzer(name, null)) {
+            Analyzer analyzer = lease.getAnalyzer();
+            long created = System.nanoTime();
+
+            long firstPass = 0;
+            long window = 0;
+            long previousWindow = Long.MAX_VALUE;
+            int passes = 0;
+            while (passes < maxPasses && System.nanoTime() < deadline) {
+                long passStart = System.nanoTime();
+                for (String text : SAMPLE_TEXTS) {
+                    consume(analyzer, text);
+                }
+                long passTime = System.nanoTime() - passStart;
+                if (passes == 0) {
+                    firstPass = passTime;
+                }
+                passes++;
+                window += passTime;
+                if (passes % WINDOW == 0) {
+                    boolean converged = window > previousWindow * (1 - MIN_SPEEDUP);
+                    previousWindow = window;
+                    window = 0;
+                    if (converged) {
+                        break;
+                    }
+                }
+            }
+            long warmPass = previousWindow != Long.MAX_VALUE ? previousWindow / WINDOW : window / Math.max(1, passes);
+
+            long requestStart = System.nanoTime();
+            AnalyzeRequest request = new AnalyzeRequest();
+            request.setIndexText(String.join(" ", SAMPLE_TEXTS));
+            request.setQueryText(SAMPLE_TEXTS.get(0));
+            request.setIncludeDetails(true);
+            objectMapper.writeValueAsBytes(analyzerService.analyze(lease, lease, request));
+            long requestTime = System.nanoTime() - requestStart;
+
+            log.info("Warmed up {} in {} ms: created in {} ms, {} passes, first pass {} us, warm pass {} us, request {} us",
+                name, (System.nanoTime() - start) / 1_000_000, (created - start) / 1_000_000, passes,
+                firstPass / 1_000, warmPass / 1_000, requestTime / 1_000);
+        }
+    }
+
+    private static void consume(Analyzer analyzer, String text) throws IOException {
+        try (TokenStream stream = analyzer.tokenStream(null, text)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                // Only the work matters
+            }
+            stream.end();
+        }
+    }
+}
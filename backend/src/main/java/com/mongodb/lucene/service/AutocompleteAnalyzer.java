@@ -0,0 +1,51 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.AutocompleteConfig;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.AnalyzerWrapper;
+import org.apache.lucene.analysis.TokenStream;
+
+/**
+ * Wraps a base analyzer with the index-side or query-side autocomplete chain.
+ * Cached wrappers are pooled with {@link PooledAnalyzer}, so the whole chain (base analyzer plus
+ * autocomplete filters) is reused across requests rather than rebuilt for each one.
+ */
+final class AutocompleteAnalyzer extends AnalyzerWrapper {
+    private final Analyzer base;
+    private final AutocompleteConfig config;
+    private final boolean query;
+
+    AutocompleteAnalyzer(Analyzer base, AutocompleteConfig config, boolean query) {
+        super(base.getReuseStrategy());
+        this.base = base;
+        // Copy the settings: the request's config object is mutable
+        this.config = new AutocompleteConfig(config.getAutocompleteType(), config.getMinGrams(), config.getMaxGrams());
+        this.query = query;
+        if (!query) {
+            // Fail fast on invalid settings instead of on first use; the query side only
+            // truncates, so it keeps accepting whatever it accepted before
+            AutocompleteFilters.validate(this.config);
+        }
+    }
+
+    /**
+     * Cache key for a wrapper of one base analyzer
+     */
+    static String key(AutocompleteConfig config, boolean query) {
+        return (query ? "query:" : "index:") + config.getAutocompleteType()
+            + ":" + config.getMinGrams() + ":" + config.getMaxGrams();
+    }
+
+    @Override
+    protected Analyzer getWrappedAnalyzer(String fieldName) {
+        return base;
+    }
+
+    @Override
+    protected TokenStreamComponents wrapComponents(String fieldName, TokenStreamComponents components) {
+        TokenStream stream = query
+            ? AutocompleteFilters.query(components.getTokenStream(), config)
+            : AutocompleteFilters.index(components.getTokenStream(), config);
+        return new TokenStreamComponents(components.getSource(), stream);
+    }
+}
@@ -0,0 +1,117 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.AutocompleteConfig;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ConditionalTokenFilter;
+import org.apache.lucene.analysis.miscellaneous.KeywordRepeatFilter;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+import org.apache.lucene.analysis.shingle.ShingleFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Token filter chains that implement autocomplete analysis in a single pass over the base stream.
+ * Each input token is duplicated with {@link KeywordRepeatFilter}: the keyword copy carries the
+ * original term and the other copy is expanded or passed through, so the output order is the
+ * original term followed by its derived terms.
+ */
+final class AutocompleteFilters {
+
+    private AutocompleteFilters() {}
+
+    /**
+     * Index side: shingles of 2-3 tokens (plus unigrams), each emitted truncated to maxGrams
+     * and followed by its edgeGram/nGram expansion.
+     */
+    static TokenStream index(TokenStream base, AutocompleteConfig config) {
+        Function<TokenStream, TokenStream> grams = gramFilter(config);
+        ShingleFilter shingles = new ShingleFilter(base, 2, 3);
+        shingles.setOutputUnigramsIfNoShingles(true);
+        TokenStream stream = new KeywordRepeatFilter(shingles);
+        stream = new KeywordConditionFilter(stream, grams, false);
+        return new TruncateFilter(stream, config.getMaxGrams());
+    }
+
+    /**
+     * Query side: each token truncated to maxGrams, followed by the untruncated token.
+     */
+    static TokenStream query(TokenStream base, AutocompleteConfig config) {
+        TokenStream stream = new KeywordRepeatFilter(base);
+        return new KeywordConditionFilter(stream, in -> new TruncateFilter(in, config.getMaxGrams()), true);
+    }
+
+    /**
+     * Check that the settings describe a valid chain.
+     */
+    static void validate(AutocompleteConfig config) {
+        gramFilter(config);
+        if (config.getMaxGrams() < 1) {
+            throw new IllegalArgumentException("maxGrams must be greater than zero");
+        }
+        if (config.getMinGrams() < 1 || config.getMinGrams() > config.getMaxGrams()) {
+            throw new IllegalArgumentException("minGrams must be between 1 and maxGrams");
+        }
+    }
+
+    private static Function<TokenStream, TokenStream> gramFilter(AutocompleteConfig config) {
+        int minGrams = config.getMinGrams();
+        int maxGrams = config.getMaxGrams();
+        if ("edgeGram".equals(config.getAutocompleteType())) {
+            return in -> new EdgeNGramTokenFilter(in, minGrams, maxGrams, false);
+        } else if ("nGram".equals(config.getAutocompleteType())) {
+            return in -> new NGramTokenFilter(in, minGrams, maxGrams, false);
+        }
+        throw new IllegalArgumentException("Invalid autocomplete type: " + config.getAutocompleteType());
+    }
+
+    /**
+     * Applies a filter only to tokens whose keyword flag matches.
+     */
+    private static final class KeywordConditionFilter extends ConditionalTokenFilter {
+        private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+        private final boolean keyword;
+
+        KeywordConditionFilter(TokenStream input, Function<TokenStream, TokenStream> filter, boolean keyword) {
+            super(input, filter);
+            this.keyword = keyword;
+        }
+
+        @Override
+        protected boolean shouldFilter() {
+            return keywordAtt.isKeyword() == keyword;
+        }
+    }
+
+    /**
+     * Truncates every term to a maximum length. Unlike TruncateTokenFilter this ignores the
+     * keyword flag, which the chains above use to tell original terms from derived ones.
+     */
+    private static final class TruncateFilter extends TokenFilter {
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+        private final int maxLength;
+
+        TruncateFilter(TokenStream input, int maxLength) {
+            super(input);
+            if (maxLength < 1) {
+                throw new IllegalArgumentException("maxGrams must be greater than zero");
+            }
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            if (termAtt.length() > maxLength) {
+                termAtt.setLength(maxLength);
+            }
+            return true;
+        }
+    }
+}
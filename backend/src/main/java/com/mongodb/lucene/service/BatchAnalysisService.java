@@ -0,0 +1,105 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.AnalyzeRequest;
+import com.mongodb.lucene.model.BatchAnalyzeResult;
+import com.mongodb.lucene.model.BatchItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many (indexText, queryText) pairs through one pair of analyzers.
+ * Items are analyzed in parallel on the shared {@link AnalysisExecutor} and results are delivered
+ * in input order as soon as each one (and everything before it) has finished. Only a bounded window
+ * of items is in flight, so the item source is consumed lazily and can be a stream.
+ */
+@Service
+public class BatchAnalysisService {
+
+    private static final int WINDOW_PER_THREAD = 4;
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    @Autowired
+    private AnalysisExecutor executor;
+
+    /**
+     * Receives batch results in input order.
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void accept(BatchAnalyzeResult result) throws IOException;
+    }
+
+    /**
+     * Analyze all items with the given analyzers and settings.
+     * A failing item produces an error result; unreadable input ends the batch with an error result.
+     */
+    public void analyze(AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer, AnalyzeRequest spec,
+                        Iterator<BatchItem> items, ResultSink sink) throws IOException {
+        int window = executor.getParallelism() * WINDOW_PER_THREAD;
+        Deque<Future<BatchAnalyzeResult>> inFlight = new ArrayDeque<>();
+        int nextIndex = 0;
+        String inputError = null;
+
+        try {
+            while (true) {
+                // Keep the window full before waiting on the oldest item
+                while (inputError == null && inFlight.size() < window) {
+                    BatchItem item;
+                    try {
+                        if (!items.hasNext()) {
+                            break;
+                        }
+                        item = items.next();
+                    } catch (RuntimeException e) {
+                        inputError = "Invalid batch item: " + e.getMessage();
+                        break;
+                    }
+                    int index = nextIndex++;
+                    inFlight.add(executor.submit(() -> analyzeItem(index, indexAnalyzer, queryAnalyzer, spec, item)));
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                sink.accept(await(inFlight.poll()));
+            }
+            if (inputError != null) {
+                sink.accept(new BatchAnalyzeResult(nextIndex, null, inputError));
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private BatchAnalyzeResult analyzeItem(int index, AnalyzerLease indexAnalyzer, AnalyzerLease queryAnalyzer,
+                                           AnalyzeRequest spec, BatchItem item) {
+        if (item == null || item.getIndexText() == null || item.getQueryText() == null) {
+            return new BatchAnalyzeResult(index, null, "indexText and queryText are required");
+        }
+        try {
+            AnalyzeRequest request = spec.withTexts(item.getIndexText(), item.getQueryText());
+            return new BatchAnalyzeResult(index, analyzerService.analyze(indexAnalyzer, queryAnalyzer, request), null);
+        } catch (IOException | RuntimeException e) {
+            return new BatchAnalyzeResult(index, null, e.getMessage());
+        }
+    }
+
+    private static BatchAnalyzeResult await(Future<BatchAnalyzeResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch analysis failed", e.getCause());
+        }
+    }
+}
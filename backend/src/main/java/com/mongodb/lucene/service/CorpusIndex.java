@@ -0,0 +1,125 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.SampleDocument;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index of one corpus built with one index analyzer. New corpus documents are added
+ * to the open writer and become visible through a near-real-time reader reopen, so the index is
+ * never rebuilt from scratch. Holds its own lease on the analyzer for as long as it exists.
+ */
+final class CorpusIndex implements AutoCloseable {
+    static final String ID_FIELD = "id";
+    static final String TEXT_FIELD = "text";
+
+    private final AnalyzerLease analyzer;
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searchers;
+    // Searches hold the read lock so close() never pulls the index out from under them
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+    private int indexedCount;
+    private boolean closed;
+
+    CorpusIndex(AnalyzerLease analyzer) throws IOException {
+        this.analyzer = analyzer;
+        // BM25 is the default similarity
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer.getAnalyzer()));
+        this.searchers = new SearcherManager(writer, null);
+    }
+
+    @FunctionalInterface
+    interface SearchFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    /**
+     * Index the documents appended to the corpus since the last call and reopen the reader.
+     * Documents are replaced by id, so re-uploading a document updates it.
+     */
+    void catchUp(List<SampleDocument> corpusDocuments) throws IOException {
+        lifecycle.readLock().lock();
+        try {
+            ensureOpen();
+            synchronized (writer) {
+                if (indexedCount == corpusDocuments.size()) {
+                    return;
+                }
+                for (SampleDocument document : corpusDocuments.subList(indexedCount, corpusDocuments.size())) {
+                    Document doc = new Document();
+                    doc.add(new StringField(ID_FIELD, document.getId(), Field.Store.YES));
+                    doc.add(new TextField(TEXT_FIELD, document.getText(), Field.Store.YES));
+                    writer.updateDocument(new Term(ID_FIELD, document.getId()), doc);
+                }
+                indexedCount = corpusDocuments.size();
+            }
+            searchers.maybeRefreshBlocking();
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    /**
+     * Run a function against the current reader.
+     */
+    <T> T search(SearchFunction<T> function) throws IOException {
+        lifecycle.readLock().lock();
+        try {
+            ensureOpen();
+            IndexSearcher searcher = searchers.acquire();
+            try {
+                return function.apply(searcher);
+            } finally {
+                searchers.release(searcher);
+            }
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+    }
+
+    String getAnalyzerKey() {
+        return analyzer.getKey();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Corpus index was closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        lifecycle.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                searchers.close();
+                writer.rollback();
+                directory.close();
+            } catch (IOException e) {
+                // In-memory only: nothing left to clean up
+            } finally {
+                analyzer.close();
+            }
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+    }
+}
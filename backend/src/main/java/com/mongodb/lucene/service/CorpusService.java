@@ -0,0 +1,302 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.CorpusSummary;
+import com.mongodb.lucene.model.SampleDocument;
+import com.mongodb.lucene.model.SearchHit;
+import com.mongodb.lucene.model.SearchRequest;
+import com.mongodb.lucene.model.SearchResponse;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Sample corpora searched with real Lucene queries. Each corpus keeps its uploaded documents;
+ * the first search with an index analyzer builds an in-memory index of the corpus with it, and
+ * that index is kept (per corpus, keyed by the analyzer fingerprint) and brought up to date
+ * incrementally as documents are added.
+ */
+@Service
+public class CorpusService {
+
+    private static final Pattern CORPUS_NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    private final int maxDocuments;
+    private final int maxIndexesPerCorpus;
+    private final Map<String, Corpus> corpora = new ConcurrentHashMap<>();
+
+    public CorpusService(
+        @Value("${analyzer.corpus.max-documents:10000}") int maxDocuments,
+        @Value("${analyzer.corpus.max-indexes-per-corpus:8}") int maxIndexesPerCorpus
+    ) {
+        if (maxIndexesPerCorpus < 1) {
+            throw new IllegalArgumentException("analyzer.corpus.max-indexes-per-corpus must be positive");
+        }
+        this.maxDocuments = maxDocuments;
+        this.maxIndexesPerCorpus = maxIndexesPerCorpus;
+    }
+
+    /**
+     * Add documents to a corpus, creating it if needed. Documents without an id are numbered by
+     * position, skipping numbers that are already the id of another document.
+     */
+    public CorpusSummary addDocuments(String name, List<SampleDocument> documents) {
+        if (!CORPUS_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid corpus name: " + name);
+        }
+        for (SampleDocument document : documents) {
+            if (document == null || document.getText() == null) {
+                throw new IllegalArgumentException("Every document needs a text");
+            }
+        }
+        Corpus corpus = corpora.computeIfAbsent(name, Corpus::new);
+        corpus.append(documents, maxDocuments);
+        return corpus.summary();
+    }
+
+    public List<CorpusSummary> listCorpora() {
+        List<CorpusSummary> summaries = new ArrayList<>();
+        corpora.values().forEach(corpus -> summaries.add(corpus.summary()));
+        return summaries;
+    }
+
+    /**
+     * Current documents of a corpus, or null if the corpus does not exist.
+     */
+    public List<SampleDocument> getDocuments(String name) {
+        Corpus corpus = corpora.get(name);
+        return corpus != null ? corpus.documents() : null;
+    }
+
+    /**
+     * Drop a corpus and its indexes; returns false if it did not exist.
+     */
+    public boolean deleteCorpus(String name) {
+        Corpus corpus = corpora.remove(name);
+        if (corpus == null) {
+            return false;
+        }
+        corpus.close();
+        return true;
+    }
+
+    /**
+     * Run a query against a corpus, or return null if the corpus does not exist.
+     */
+    public SearchResponse search(String name, SearchRequest request) throws IOException {
+        Corpus corpus = corpora.get(name);
+        if (corpus == null) {
+            return null;
+        }
+        if (request.getQuery() == null) {
+            throw new IllegalArgumentException("Query is required");
+        }
+        if (request.getTopK() < 1) {
+            throw new IllegalArgumentException("topK must be positive");
+        }
+
+        try (AnalyzerLease indexAnalyzer = analyzerService.acquireAnalyzer(
+                 request.getIndexAnalyzer(),
+                 request.getCustomIndexAnalyzer()
+             );
+             AnalyzerLease queryAnalyzer = analyzerService.acquireAnalyzer(
+                 request.getQueryAnalyzer() != null ? request.getQueryAnalyzer() : request.getIndexAnalyzer(),
+                 request.getCustomQueryAnalyzer() != null ? request.getCustomQueryAnalyzer() : request.getCustomIndexAnalyzer()
+             )) {
+
+            Query query = buildQuery(queryAnalyzer, request);
+            CorpusIndex index = corpus.index(indexAnalyzer, maxIndexesPerCorpus);
+
+            try {
+                long start = System.nanoTime();
+                index.catchUp(corpus.documents());
+                double refreshMillis = (System.nanoTime() - start) / 1e6;
+                return index.search(searcher -> {
+                    long searchStart = System.nanoTime();
+                    TopDocs topDocs = searcher.search(query, request.getTopK());
+                    double searchMillis = (System.nanoTime() - searchStart) / 1e6;
+                    return new SearchResponse(
+                        name,
+                        indexAnalyzer.getKey(),
+                        query.toString(CorpusIndex.TEXT_FIELD),
+                        topDocs.totalHits.value,
+                        refreshMillis,
+                        searchMillis,
+                        hits(searcher, query, topDocs, request.isExplain())
+                    );
+                });
+            } catch (IllegalStateException e) {
+                // Deleting the corpus closes its indexes under a running search
+                throw corpora.get(name) != corpus ? new CorpusDeletedException(name) : e;
+            }
+        }
+    }
+
+    private static Query buildQuery(AnalyzerLease queryAnalyzer, SearchRequest request) {
+        QueryBuilder builder = new QueryBuilder(queryAnalyzer.getAnalyzer());
+        Query query;
+        if (request.isPhrase()) {
+            query = builder.createPhraseQuery(CorpusIndex.TEXT_FIELD, request.getQuery());
+        } else if ("and".equalsIgnoreCase(request.getOperator())) {
+            query = builder.createBooleanQuery(CorpusIndex.TEXT_FIELD, request.getQuery(), BooleanClause.Occur.MUST);
+        } else if (request.getOperator() == null || "or".equalsIgnoreCase(request.getOperator())) {
+            query = builder.createBooleanQuery(CorpusIndex.TEXT_FIELD, request.getQuery(), BooleanClause.Occur.SHOULD);
+        } else {
+            throw new IllegalArgumentException("Invalid operator: " + request.getOperator());
+        }
+        // The analyzer produced no terms at all
+        return query != null ? query : new MatchNoDocsQuery();
+    }
+
+    private static List<SearchHit> hits(IndexSearcher searcher, Query query, TopDocs topDocs, boolean explain)
+            throws IOException {
+        List<SearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            Document stored = searcher.storedFields().document(scoreDoc.doc);
+            SearchHit hit = new SearchHit(stored.get(CorpusIndex.ID_FIELD), scoreDoc.score, stored.get(CorpusIndex.TEXT_FIELD));
+            if (explain) {
+                hit.setExplanation(searcher.explain(query, scoreDoc.doc).toString());
+            }
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    @PreDestroy
+    public void close() {
+        corpora.values().forEach(Corpus::close);
+        corpora.clear();
+    }
+
+    /**
+     * Thrown when a corpus is deleted while a request is using it.
+     */
+    public static final class CorpusDeletedException extends IllegalStateException {
+        private CorpusDeletedException(String name) {
+            super("Corpus was deleted: " + name);
+        }
+    }
+
+    /**
+     * Uploaded documents of one corpus plus its indexes, least recently used first.
+     */
+    private static final class Corpus {
+        private final String name;
+        // Replaced, never modified, so indexes can read it without locking
+        private volatile List<SampleDocument> documents = List.of();
+        private final LinkedHashMap<String, CorpusIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+        private boolean closed;
+
+        private Corpus(String name) {
+            this.name = name;
+        }
+
+        private synchronized void append(List<SampleDocument> added, int maxDocuments) {
+            if (closed) {
+                throw new CorpusDeletedException(name);
+            }
+            if (documents.size() + added.size() > maxDocuments) {
+                throw new IllegalArgumentException("A corpus can hold at most " + maxDocuments + " documents");
+            }
+            List<SampleDocument> updated = new ArrayList<>(documents);
+            Set<String> ids = new HashSet<>();
+            for (SampleDocument document : updated) {
+                ids.add(document.getId());
+            }
+            for (SampleDocument document : added) {
+                if (document.getId() != null) {
+                    ids.add(document.getId());
+                }
+            }
+            for (SampleDocument document : added) {
+                String id = document.getId();
+                if (id == null) {
+                    // A number already in use as an id would replace that document in the indexes
+                    int number = updated.size();
+                    while (ids.contains(String.valueOf(number))) {
+                        number++;
+                    }
+                    id = String.valueOf(number);
+                    ids.add(id);
+                }
+                updated.add(new SampleDocument(id, document.getText()));
+            }
+            documents = List.copyOf(updated);
+        }
+
+        private List<SampleDocument> documents() {
+            return documents;
+        }
+
+        /**
+         * The index built with the given analyzer, created on first use. The index takes its own
+         * lease on the analyzer. Indexes beyond the limit are closed, least recently used first.
+         */
+        private CorpusIndex index(AnalyzerLease analyzer, int maxIndexes) throws IOException {
+            List<CorpusIndex> evicted = new ArrayList<>();
+            try {
+                synchronized (this) {
+                    if (closed) {
+                        throw new CorpusDeletedException(name);
+                    }
+                    CorpusIndex index = indexes.get(analyzer.getKey());
+                    if (index == null) {
+                        AnalyzerLease lease = analyzer.duplicate();
+                        try {
+                            index = new CorpusIndex(lease);
+                        } catch (IOException | RuntimeException e) {
+                            lease.close();
+                            throw e;
+                        }
+                        indexes.put(analyzer.getKey(), index);
+                        Iterator<CorpusIndex> it = indexes.values().iterator();
+                        while (indexes.size() > maxIndexes && it.hasNext()) {
+                            evicted.add(it.next());
+                            it.remove();
+                        }
+                    }
+                    return index;
+                }
+            } finally {
+                evicted.forEach(CorpusIndex::close);
+            }
+        }
+
+        private synchronized CorpusSummary summary() {
+            long distinct = documents.stream().map(SampleDocument::getId).distinct().count();
+            return new CorpusSummary(name, (int) distinct, new ArrayList<>(indexes.keySet()));
+        }
+
+        private void close() {
+            List<CorpusIndex> closing;
+            synchronized (this) {
+                closed = true;
+                closing = new ArrayList<>(indexes.values());
+                indexes.clear();
+            }
+            closing.forEach(CorpusIndex::close);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of compiled custom analyzers keyed by {@link CustomAnalyzerFingerprint}.
+ * Identical definitions are compiled once and shared; entries are evicted least-recently-used
+ * when the cache is full or after sitting idle longer than the configured expiry. Evicted analyzers
+ * are closed as soon as the last request using them releases its lease.
+ */
+@Component
+public class CustomAnalyzerCache {
+
+    static final String KEY_PREFIX = "custom:";
+
+    private final int maxSize;
+    private final long expireAfterAccessNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomAnalyzerCache(
+        @Value("${analyzer.custom-cache.max-size:256}") int maxSize,
+        @Value("${analyzer.custom-cache.expire-after-access:30m}") Duration expireAfterAccess
+    ) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("analyzer.custom-cache.max-size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+    }
+
+    /**
+     * Lease the compiled analyzer for a definition, compiling it on a miss.
+     */
+    public AnalyzerLease acquire(CustomAnalyzerDefinition definition) {
+        String key = KEY_PREFIX + CustomAnalyzerFingerprint.of(definition);
+        List<SharedAnalyzer> removed = new ArrayList<>();
+        try {
+            AnalyzerLease lease = lookup(key, removed);
+            if (lease != null) {
+                hits.incrementAndGet();
+                return lease;
+            }
+            misses.incrementAndGet();
+
+            // Compile outside the lock; if another request won the race, use its instance instead
+            SharedAnalyzer compiled = new SharedAnalyzer(key, CustomAnalyzerFactory.build(definition));
+            synchronized (entries) {
+                Entry existing = entries.get(key);
+                if (existing != null) {
+                    removed.add(compiled);
+                    existing.touch();
+                    return existing.analyzer.acquire();
+                }
+                entries.put(key, new Entry(compiled));
+                evictOverflow(removed);
+                return compiled.acquire();
+            }
+        } finally {
+            removed.forEach(SharedAnalyzer::release);
+        }
+    }
+
+    private AnalyzerLease lookup(String key, List<SharedAnalyzer> removed) {
+        synchronized (entries) {
+            expire(removed);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.touch();
+            return entry.analyzer.acquire();
+        }
+    }
+
+    private void expire(List<SharedAnalyzer> removed) {
+        long now = System.nanoTime();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            // Access order: the first entry that is still fresh means all later ones are too
+            if (now - entry.lastAccess < expireAfterAccessNanos) {
+                break;
+            }
+            it.remove();
+            removed.add(entry.analyzer);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void evictOverflow(List<SharedAnalyzer> removed) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            removed.add(it.next().getValue().analyzer);
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop and close every cached analyzer.
+     */
+    @PreDestroy
+    public void clear() {
+        List<SharedAnalyzer> removed;
+        synchronized (entries) {
+            removed = new ArrayList<>();
+            entries.values().forEach(entry -> removed.add(entry.analyzer));
+            entries.clear();
+        }
+        removed.forEach(SharedAnalyzer::release);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static final class Entry {
+        private final SharedAnalyzer analyzer;
+        private long lastAccess = System.nanoTime();
+
+        private Entry(SharedAnalyzer analyzer) {
+            this.analyzer = analyzer;
+        }
+
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.mongodb.lucene.service;
 
+import com.ibm.icu.text.Normalizer2;
+import com.mongodb.lucene.model.StageProfile;
+import com.mongodb.lucene.model.TokenTrace;
 import com.mongodb.lucene.model.custom.*;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.CharArraySet;
@@ -30,14 +33,24 @@ import org.apache.lucene.analysis.snowball.SnowballFilter;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.analysis.stempel.StempelFilter;
 import org.apache.lucene.analysis.stempel.StempelStemmer;
+import org.egothor.stemmer.Trie;
+import org.tartarus.snowball.SnowballStemmer;
 import org.tartarus.snowball.ext.*;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
  * Factory for creating custom Lucene analyzers from analyzer definitions.
@@ -53,26 +66,52 @@ public class CustomAnalyzerFactory {
             throw new IllegalArgumentException("Tokenizer is required");
         }
 
-        List<Function<Reader, Reader>> charFilters = buildCharFilters(
-            definition.getCharFilters() != null ? definition.getCharFilters() : Collections.emptyList()
-        );
-        
-        Function<String, Tokenizer> tokenizerFactory = buildTokenizer(definition.getTokenizer());
-        
-        List<Function<TokenStream, TokenStream>> tokenFilters = buildTokenFilters(
-            definition.getTokenFilters() != null ? definition.getTokenFilters() : Collections.emptyList()
-        );
+        List<AnalysisResourcePool.Resource<?>> resources = new ArrayList<>();
+        try {
+            List<Function<Reader, Reader>> charFilters = buildCharFilters(
+                definition.getCharFilters() != null ? definition.getCharFilters() : Collections.emptyList(),
+                resources
+            );
+
+            Function<String, Tokenizer> tokenizerFactory = buildTokenizer(definition.getTokenizer(), resources);
 
-        return new CustomAnalyzer(charFilters, tokenizerFactory, tokenFilters);
+            List<Function<TokenStream, TokenStream>> tokenFilters = buildTokenFilters(
+                definition.getTokenFilters() != null ? definition.getTokenFilters() : Collections.emptyList(),
+                resources
+            );
+
+            return new CustomAnalyzer(charFilters, tokenizerFactory, tokenFilters, resources, stageTypes(definition));
+        } catch (RuntimeException e) {
+            resources.forEach(AnalysisResourcePool.Resource::close);
+            throw e;
+        }
+    }
+
+    /**
+     * Take a shared artifact from the resource pool, recording the reference for release on close.
+     */
+    private static <T> T pooled(List<AnalysisResourcePool.Resource<?>> resources, String kind,
+                                Object content, Supplier<T> factory) {
+        AnalysisResourcePool.Resource<T> resource = AnalysisResourcePool.shared().acquire(kind, content, factory);
+        resources.add(resource);
+        return resource.get();
+    }
+
+    /**
+     * Sorted, de-duplicated copy of a word list, used as a pool key.
+     */
+    private static List<String> sortedWords(Collection<String> words) {
+        return words == null ? List.of() : List.copyOf(new TreeSet<>(words));
     }
 
     /**
      * Build character filters.
      */
-    private static List<Function<Reader, Reader>> buildCharFilters(List<CharFilterDefinition> definitions) {
+    private static List<Function<Reader, Reader>> buildCharFilters(List<CharFilterDefinition> definitions,
+                                                                   List<AnalysisResourcePool.Resource<?>> resources) {
         List<Function<Reader, Reader>> filters = new ArrayList<>();
         for (CharFilterDefinition def : definitions) {
-            filters.add(buildCharFilter(def));
+            filters.add(buildCharFilter(def, resources));
         }
         return filters;
     }
@@ -80,20 +119,26 @@ public class CustomAnalyzerFactory {
     /**
      * Build a single character filter.
      */
-    private static Function<Reader, Reader> buildCharFilter(CharFilterDefinition def) {
+    private static Function<Reader, Reader> buildCharFilter(CharFilterDefinition def,
+                                                            List<AnalysisResourcePool.Resource<?>> resources) {
         if (def instanceof CharFilterDefinition.HtmlStripCharFilter) {
             CharFilterDefinition.HtmlStripCharFilter filter = (CharFilterDefinition.HtmlStripCharFilter) def;
             Set<String> ignoredTags = filter.getIgnoredTags();
             return reader -> new HTMLStripCharFilter(reader, ignoredTags);
         } else if (def instanceof CharFilterDefinition.IcuNormalizeCharFilter) {
-            return reader -> new ICUNormalizer2CharFilter(reader);
+            Normalizer2 normalizer = pooled(resources, "normalizer2", "nfkc_cf",
+                () -> Normalizer2.getInstance(null, "nfkc_cf", Normalizer2.Mode.COMPOSE));
+            return reader -> new ICUNormalizer2CharFilter(reader, normalizer);
         } else if (def instanceof CharFilterDefinition.MappingCharFilter) {
             CharFilterDefinition.MappingCharFilter filter = (CharFilterDefinition.MappingCharFilter) def;
-            NormalizeCharMap.Builder builder = new NormalizeCharMap.Builder();
-            if (filter.getMappings() != null) {
-                filter.getMappings().forEach(builder::add);
-            }
-            NormalizeCharMap charMap = builder.build();
+            Map<String, String> mappings = filter.getMappings() != null
+                ? Collections.unmodifiableSortedMap(new TreeMap<>(filter.getMappings()))
+                : Collections.emptySortedMap();
+            NormalizeCharMap charMap = pooled(resources, "charMap", mappings, () -> {
+                NormalizeCharMap.Builder builder = new NormalizeCharMap.Builder();
+                mappings.forEach(builder::add);
+                return builder.build();
+            });
             return reader -> new MappingCharFilter(charMap, reader);
         } else if (def instanceof CharFilterDefinition.PersianCharFilter) {
             return reader -> new PersianCharFilter(reader);
@@ -104,7 +149,8 @@ public class CustomAnalyzerFactory {
     /**
      * Build tokenizer.
      */
-    private static Function<String, Tokenizer> buildTokenizer(TokenizerDefinition def) {
+    private static Function<String, Tokenizer> buildTokenizer(TokenizerDefinition def,
+                                                              List<AnalysisResourcePool.Resource<?>> resources) {
         if (def instanceof TokenizerDefinition.EdgeGramTokenizer) {
             TokenizerDefinition.EdgeGramTokenizer tokenizer = (TokenizerDefinition.EdgeGramTokenizer) def;
             return fieldName -> new EdgeNGramTokenizer(tokenizer.getMinGram(), tokenizer.getMaxGram());
@@ -115,10 +161,13 @@ public class CustomAnalyzerFactory {
             return fieldName -> new NGramTokenizer(tokenizer.getMinGram(), tokenizer.getMaxGram());
         } else if (def instanceof TokenizerDefinition.RegexCaptureGroupTokenizer) {
             TokenizerDefinition.RegexCaptureGroupTokenizer tokenizer = (TokenizerDefinition.RegexCaptureGroupTokenizer) def;
-            return fieldName -> new PatternTokenizer(tokenizer.getCompiledPattern(), tokenizer.getGroup());
+            Pattern pattern = pooledPattern(resources, tokenizer.getPattern());
+            int group = tokenizer.getGroup();
+            return fieldName -> new PatternTokenizer(pattern, group);
         } else if (def instanceof TokenizerDefinition.RegexSplitTokenizer) {
             TokenizerDefinition.RegexSplitTokenizer tokenizer = (TokenizerDefinition.RegexSplitTokenizer) def;
-            return fieldName -> new PatternTokenizer(tokenizer.getCompiledPattern(), -1);
+            Pattern pattern = pooledPattern(resources, tokenizer.getPattern());
+            return fieldName -> new PatternTokenizer(pattern, -1);
         } else if (def instanceof TokenizerDefinition.StandardTokenizer) {
             TokenizerDefinition.StandardTokenizer tokenizer = (TokenizerDefinition.StandardTokenizer) def;
             return fieldName -> {
@@ -152,10 +201,11 @@ public class CustomAnalyzerFactory {
     /**
      * Build token filters.
      */
-    private static List<Function<TokenStream, TokenStream>> buildTokenFilters(List<TokenFilterDefinition> definitions) {
+    private static List<Function<TokenStream, TokenStream>> buildTokenFilters(List<TokenFilterDefinition> definitions,
+                                                                              List<AnalysisResourcePool.Resource<?>> resources) {
         List<Function<TokenStream, TokenStream>> filters = new ArrayList<>();
         for (TokenFilterDefinition def : definitions) {
-            filters.add(buildTokenFilter(def));
+            filters.add(buildTokenFilter(def, resources));
         }
         return filters;
     }
@@ -163,7 +213,8 @@ public class CustomAnalyzerFactory {
     /**
      * Build a single token filter.
      */
-    private static Function<TokenStream, TokenStream> buildTokenFilter(TokenFilterDefinition def) {
+    private static Function<TokenStream, TokenStream> buildTokenFilter(TokenFilterDefinition def,
+                                                                       List<AnalysisResourcePool.Resource<?>> resources) {
         if (def instanceof TokenFilterDefinition.AsciiFoldingFilter) {
             TokenFilterDefinition.AsciiFoldingFilter filter = (TokenFilterDefinition.AsciiFoldingFilter) def;
             return input -> new ASCIIFoldingFilter(input, filter.isPreserveOriginal());
@@ -183,25 +234,9 @@ public class CustomAnalyzerFactory {
             return input -> new ICUFoldingFilter(input);
         } else if (def instanceof TokenFilterDefinition.IcuNormalizerFilter) {
             TokenFilterDefinition.IcuNormalizerFilter filter = (TokenFilterDefinition.IcuNormalizerFilter) def;
-            return input -> {
-                com.ibm.icu.text.Normalizer2 normalizer;
-                switch (filter.getNormalizationForm().toLowerCase()) {
-                    case "nfd":
-                        normalizer = com.ibm.icu.text.Normalizer2.getNFDInstance();
-                        break;
-                    case "nfkc":
-                        normalizer = com.ibm.icu.text.Normalizer2.getNFKCInstance();
-                        break;
-                    case "nfkd":
-                        normalizer = com.ibm.icu.text.Normalizer2.getNFKDInstance();
-                        break;
-                    case "nfc":
-                    default:
-                        normalizer = com.ibm.icu.text.Normalizer2.getNFCInstance();
-                        break;
-                }
-                return new ICUNormalizer2Filter(input, normalizer);
-            };
+            String form = filter.getNormalizationForm().toLowerCase();
+            Normalizer2 normalizer = pooled(resources, "normalizer2", form, () -> getNormalizer(form));
+            return input -> new ICUNormalizer2Filter(input, normalizer);
         } else if (def instanceof TokenFilterDefinition.KeywordRepeatFilter) {
             return input -> new KeywordRepeatFilter(input);
         } else if (def instanceof TokenFilterDefinition.KStemFilter) {
@@ -220,7 +255,9 @@ public class CustomAnalyzerFactory {
         } else if (def instanceof TokenFilterDefinition.RegexFilter) {
             TokenFilterDefinition.RegexFilter filter = (TokenFilterDefinition.RegexFilter) def;
             boolean replaceAll = "all".equalsIgnoreCase(filter.getMatches());
-            return input -> new PatternReplaceFilter(input, filter.getCompiledPattern(), filter.getReplacement(), replaceAll);
+            Pattern pattern = pooledPattern(resources, filter.getPattern());
+            String replacement = filter.getReplacement();
+            return input -> new PatternReplaceFilter(input, pattern, replacement, replaceAll);
         } else if (def instanceof TokenFilterDefinition.RemoveDuplicatesFilter) {
             return input -> new RemoveDuplicatesTokenFilter(input);
         } else if (def instanceof TokenFilterDefinition.ReverseFilter) {
@@ -234,20 +271,20 @@ public class CustomAnalyzerFactory {
             };
         } else if (def instanceof TokenFilterDefinition.SnowballStemmingFilter) {
             TokenFilterDefinition.SnowballStemmingFilter filter = (TokenFilterDefinition.SnowballStemmingFilter) def;
-            return input -> {
-                org.tartarus.snowball.SnowballStemmer stemmer = getSnowballStemmer(filter.getStemmerName());
-                return new SnowballFilter(input, stemmer);
-            };
+            // Stemmers keep per-stream state; their rule tables are static, so only the factory is resolved here
+            Supplier<SnowballStemmer> stemmerFactory = getSnowballStemmer(filter.getStemmerName());
+            return input -> new SnowballFilter(input, stemmerFactory.get());
         } else if (def instanceof TokenFilterDefinition.SpanishPluralStemmingFilter) {
             return input -> new SpanishPluralStemFilter(input);
         } else if (def instanceof TokenFilterDefinition.StempelFilter) {
-            return input -> new StempelFilter(input, new StempelStemmer(PolishAnalyzer.getDefaultTable()));
+            Trie table = pooled(resources, "stempelTable", "default", PolishAnalyzer::getDefaultTable);
+            return input -> new StempelFilter(input, new StempelStemmer(table));
         } else if (def instanceof TokenFilterDefinition.StopwordFilter) {
             TokenFilterDefinition.StopwordFilter filter = (TokenFilterDefinition.StopwordFilter) def;
-            CharArraySet stopSet = StopFilter.makeStopSet(
-                filter.getTokens().toArray(new String[0]), 
-                filter.isIgnoreCase()
-            );
+            List<String> tokens = sortedWords(filter.getTokens());
+            boolean ignoreCase = filter.isIgnoreCase();
+            CharArraySet stopSet = pooled(resources, "stopSet", List.of(ignoreCase, tokens),
+                () -> CharArraySet.unmodifiableSet(StopFilter.makeStopSet(tokens, ignoreCase)));
             return input -> new StopFilter(input, stopSet);
         } else if (def instanceof TokenFilterDefinition.TrimFilter) {
             return input -> new TrimFilter(input);
@@ -264,9 +301,12 @@ public class CustomAnalyzerFactory {
             if (filter.isSplitOnNumerics()) flags |= WordDelimiterGraphFilter.SPLIT_ON_NUMERICS;
             if (filter.isStemEnglishPossessive()) flags |= WordDelimiterGraphFilter.STEM_ENGLISH_POSSESSIVE;
             
-            CharArraySet protectedWords = filter.getProtectedWords() != null 
-                ? new CharArraySet(filter.getProtectedWords(), filter.isIgnoreCase())
-                : new CharArraySet(0, false);
+            List<String> words = sortedWords(filter.getProtectedWords());
+            boolean ignoreCase = filter.isIgnoreCase();
+            CharArraySet protectedWords = words.isEmpty()
+                ? CharArraySet.EMPTY_SET
+                : pooled(resources, "protectedWords", List.of(ignoreCase, words),
+                    () -> CharArraySet.unmodifiableSet(new CharArraySet(words, ignoreCase)));
             
             int finalFlags = flags;
             return input -> new WordDelimiterGraphFilter(input, finalFlags, protectedWords);
@@ -275,45 +315,126 @@ public class CustomAnalyzerFactory {
     }
 
     /**
-     * Get snowball stemmer by name.
+     * Get snowball stemmer factory by name.
      */
-    private static org.tartarus.snowball.SnowballStemmer getSnowballStemmer(String stemmerName) {
+    private static Supplier<SnowballStemmer> getSnowballStemmer(String stemmerName) {
         return switch (stemmerName.toLowerCase()) {
-            case "arabic" -> new ArabicStemmer();
-            case "armenian" -> new ArmenianStemmer();
-            case "basque" -> new BasqueStemmer();
-            case "catalan" -> new CatalanStemmer();
-            case "danish" -> new DanishStemmer();
-            case "dutch" -> new DutchStemmer();
-            case "english" -> new EnglishStemmer();
-            case "estonian" -> new EstonianStemmer();
-            case "finnish" -> new FinnishStemmer();
-            case "french" -> new FrenchStemmer();
-            case "german" -> new GermanStemmer();
-            case "german2" -> new German2Stemmer();
-            case "greek" -> new GreekStemmer();
-            case "hindi" -> new HindiStemmer();
-            case "hungarian" -> new HungarianStemmer();
-            case "indonesian" -> new IndonesianStemmer();
-            case "irish" -> new IrishStemmer();
-            case "italian" -> new ItalianStemmer();
-            case "lithuanian" -> new LithuanianStemmer();
-            case "nepali" -> new NepaliStemmer();
-            case "norwegian" -> new NorwegianStemmer();
-            case "porter" -> new PorterStemmer();
-            case "portuguese" -> new PortugueseStemmer();
-            case "romanian" -> new RomanianStemmer();
-            case "russian" -> new RussianStemmer();
-            case "serbian" -> new SerbianStemmer();
-            case "spanish" -> new SpanishStemmer();
-            case "swedish" -> new SwedishStemmer();
-            case "tamil" -> new TamilStemmer();
-            case "turkish" -> new TurkishStemmer();
-            case "yiddish" -> new YiddishStemmer();
+            case "arabic" -> ArabicStemmer::new;
+            case "armenian" -> ArmenianStemmer::new;
+            case "basque" -> BasqueStemmer::new;
+            case "catalan" -> CatalanStemmer::new;
+            case "danish" -> DanishStemmer::new;
+            case "dutch" -> DutchStemmer::new;
+            case "english" -> EnglishStemmer::new;
+            case "estonian" -> EstonianStemmer::new;
+            case "finnish" -> FinnishStemmer::new;
+            case "french" -> FrenchStemmer::new;
+            case "german" -> GermanStemmer::new;
+            case "german2" -> German2Stemmer::new;
+            case "greek" -> GreekStemmer::new;
+            case "hindi" -> HindiStemmer::new;
+            case "hungarian" -> HungarianStemmer::new;
+            case "indonesian" -> IndonesianStemmer::new;
+            case "irish" -> IrishStemmer::new;
+            case "italian" -> ItalianStemmer::new;
+            case "lithuanian" -> LithuanianStemmer::new;
+            case "nepali" -> NepaliStemmer::new;
+            case "norwegian" -> NorwegianStemmer::new;
+            case "porter" -> PorterStemmer::new;
+            case "portuguese" -> PortugueseStemmer::new;
+            case "romanian" -> RomanianStemmer::new;
+            case "russian" -> RussianStemmer::new;
+            case "serbian" -> SerbianStemmer::new;
+            case "spanish" -> SpanishStemmer::new;
+            case "swedish" -> SwedishStemmer::new;
+            case "tamil" -> TamilStemmer::new;
+            case "turkish" -> TurkishStemmer::new;
+            case "yiddish" -> YiddishStemmer::new;
             default -> throw new IllegalArgumentException("Unknown snowball stemmer: " + stemmerName);
         };
     }
 
+    /**
+     * Get ICU normalizer by normalization form.
+     */
+    private static Normalizer2 getNormalizer(String normalizationForm) {
+        return switch (normalizationForm) {
+            case "nfd" -> Normalizer2.getNFDInstance();
+            case "nfkc" -> Normalizer2.getNFKCInstance();
+            case "nfkd" -> Normalizer2.getNFKDInstance();
+            default -> Normalizer2.getNFCInstance();
+        };
+    }
+
+    /**
+     * Get a compiled regex pattern from the resource pool.
+     */
+    private static Pattern pooledPattern(List<AnalysisResourcePool.Resource<?>> resources, String regex) {
+        if (regex == null) {
+            throw new IllegalArgumentException("Pattern is required");
+        }
+        return pooled(resources, "pattern", regex, () -> Pattern.compile(regex));
+    }
+
+    /**
+     * Run a text through an instrumented copy of a custom analyzer and report the time and data
+     * flow of each stage. Returns null for analyzers not built by this factory.
+     */
+    static List<StageProfile> profile(Analyzer analyzer, String text) throws IOException {
+        if (!(analyzer instanceof CustomAnalyzer custom)) {
+            return null;
+        }
+        StageTypes types = custom.stageTypes;
+        StageProfiler profiler = new StageProfiler(types.charFilters, types.tokenizer, types.tokenFilters);
+        custom.runInstrumented(profiler, text);
+        return profiler.results();
+    }
+
+    /**
+     * Run a text through an instrumented copy of a custom analyzer, recording the tokens after the
+     * tokenizer and after each token filter in one pass. Returns null for analyzers not built by
+     * this factory.
+     */
+    static TokenTrace trace(Analyzer analyzer, String text) throws IOException {
+        if (!(analyzer instanceof CustomAnalyzer custom)) {
+            return null;
+        }
+        StageTypes types = custom.stageTypes;
+        List<String> stages = new ArrayList<>();
+        stages.add(types.tokenizer);
+        stages.addAll(types.tokenFilters);
+        StageTracer tracer = new StageTracer(types.charFilters.size(), stages);
+        custom.runInstrumented(tracer, text);
+        return tracer.result(text);
+    }
+
+    private static StageTypes stageTypes(CustomAnalyzerDefinition definition) {
+        List<String> charFilterTypes = new ArrayList<>();
+        if (definition.getCharFilters() != null) {
+            definition.getCharFilters().forEach(def -> charFilterTypes.add(def.getType()));
+        }
+        List<String> tokenFilterTypes = new ArrayList<>();
+        if (definition.getTokenFilters() != null) {
+            definition.getTokenFilters().forEach(def -> tokenFilterTypes.add(def.getType()));
+        }
+        return new StageTypes(charFilterTypes, definition.getTokenizer().getType(), tokenFilterTypes);
+    }
+
+    /**
+     * Component type names of a chain, in order, for labelling instrumented stages.
+     */
+    private static final class StageTypes {
+        private final List<String> charFilters;
+        private final String tokenizer;
+        private final List<String> tokenFilters;
+
+        private StageTypes(List<String> charFilters, String tokenizer, List<String> tokenFilters) {
+            this.charFilters = charFilters;
+            this.tokenizer = tokenizer;
+            this.tokenFilters = tokenFilters;
+        }
+    }
+
     /**
      * Custom Analyzer implementation that chains components together.
      */
@@ -321,15 +442,59 @@ public class CustomAnalyzerFactory {
         private final List<Function<Reader, Reader>> charFilters;
         private final Function<String, Tokenizer> tokenizerFactory;
         private final List<Function<TokenStream, TokenStream>> tokenFilters;
+        private final List<AnalysisResourcePool.Resource<?>> resources;
+        private final StageTypes stageTypes;
 
         public CustomAnalyzer(
             List<Function<Reader, Reader>> charFilters,
             Function<String, Tokenizer> tokenizerFactory,
-            List<Function<TokenStream, TokenStream>> tokenFilters
+            List<Function<TokenStream, TokenStream>> tokenFilters,
+            List<AnalysisResourcePool.Resource<?>> resources,
+            StageTypes stageTypes
         ) {
             this.charFilters = charFilters;
             this.tokenizerFactory = tokenizerFactory;
             this.tokenFilters = tokenFilters;
+            this.resources = resources;
+            this.stageTypes = stageTypes;
+        }
+
+        /**
+         * Run a text through a single-use copy of this chain with the taps between its stages.
+         * The copy shares the compiled components and resources, which stay owned by this analyzer.
+         */
+        private void runInstrumented(StageTaps taps, String text) throws IOException {
+            try (Analyzer instrumented = instrumented(taps);
+                 TokenStream stream = instrumented.tokenStream(null, new StringReader(text))) {
+                stream.reset();
+                while (stream.incrementToken()) {
+                    // Only the taps observe the tokens
+                }
+                stream.end();
+            }
+        }
+
+        private Analyzer instrumented(StageTaps taps) {
+            return new Analyzer() {
+                @Override
+                protected Reader initReader(String fieldName, Reader reader) {
+                    Reader current = taps.source(reader);
+                    for (int i = 0; i < charFilters.size(); i++) {
+                        current = taps.charFilter(i, charFilters.get(i).apply(current));
+                    }
+                    return current;
+                }
+
+                @Override
+                protected TokenStreamComponents createComponents(String fieldName) {
+                    Tokenizer tokenizer = tokenizerFactory.apply(fieldName);
+                    TokenStream stream = taps.tokenizer(tokenizer);
+                    for (int i = 0; i < tokenFilters.size(); i++) {
+                        stream = taps.tokenFilter(i, tokenFilters.get(i).apply(stream));
+                    }
+                    return new TokenStreamComponents(tokenizer, stream);
+                }
+            };
         }
 
         @Override
@@ -350,5 +515,11 @@ public class CustomAnalyzerFactory {
             }
             return new TokenStreamComponents(tokenizer, stream);
         }
+
+        @Override
+        public void close() {
+            super.close();
+            resources.forEach(AnalysisResourcePool.Resource::close);
+        }
     }
 }
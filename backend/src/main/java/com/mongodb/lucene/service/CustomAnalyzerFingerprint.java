@@ -0,0 +1,87 @@
+package com.mongodb.lucene.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Content fingerprint of a custom analyzer definition.
+ * The definition is serialized in a canonical form (sorted properties and map keys, nulls dropped,
+ * set-like word lists sorted, name removed) and hashed, so definitions that build the same analyzer
+ * share one fingerprint regardless of field order or display name. Chain order is preserved.
+ */
+public final class CustomAnalyzerFingerprint {
+
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+        .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+        .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+        .serializationInclusion(JsonInclude.Include.NON_NULL)
+        .build();
+
+    // Component properties whose element order does not affect the built analyzer
+    private static final Set<String> UNORDERED_PROPERTIES = Set.of("ignoredTags", "tokens", "protectedWords");
+
+    private CustomAnalyzerFingerprint() {}
+
+    /**
+     * Compute the hex-encoded SHA-256 fingerprint of a definition.
+     */
+    public static String of(CustomAnalyzerDefinition definition) {
+        ObjectNode tree = CANONICAL_MAPPER.valueToTree(definition);
+        tree.remove("name");
+        // An empty chain builds the same analyzer as a missing one
+        for (String chain : List.of("charFilters", "tokenFilters")) {
+            if (tree.path(chain).isEmpty()) {
+                tree.remove(chain);
+            }
+        }
+        canonicalize(tree);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(CANONICAL_MAPPER.writeValueAsBytes(tree)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint analyzer definition", e);
+        }
+    }
+
+    private static void canonicalize(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (UNORDERED_PROPERTIES.contains(field.getKey()) && field.getValue() instanceof ArrayNode array) {
+                    sort(array);
+                } else {
+                    canonicalize(field.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(CustomAnalyzerFingerprint::canonicalize);
+        }
+    }
+
+    private static void sort(ArrayNode array) {
+        List<JsonNode> elements = new ArrayList<>();
+        array.forEach(elements::add);
+        elements.sort(Comparator.comparing(JsonNode::asText));
+        array.removeAll();
+        array.addAll(elements);
+    }
+}
@@ -0,0 +1,214 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Custom analyzers registered under a name and referenced as {@code custom.<name>}, so requests
+ * carry a short name instead of a full definition to deserialize. Each definition is compiled
+ * once when it is registered. Replacing a definition swaps in the new analyzer atomically:
+ * requests already holding a lease keep the old instance, which is closed when the last of them
+ * finishes.
+ * <p>
+ * Analyzer keys include the definition fingerprint, so cached results and corpus indexes built
+ * with a replaced definition are never mistaken for those of its successor.
+ * <p>
+ * When a store path is configured, definitions are persisted in a {@link CustomAnalyzerStore}
+ * and restored on startup. Restored definitions are compiled on first use rather than at boot,
+ * so startup only reads and deserializes them however many there are.
+ */
+@Component
+public class CustomAnalyzerRegistry {
+
+    public static final String NAME_PREFIX = "custom.";
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    private final int maxSize;
+    private final Map<String, Registered> analyzers = new ConcurrentHashMap<>();
+    private final CustomAnalyzerStore store;
+
+    public CustomAnalyzerRegistry(
+        @Value("${analyzer.custom-registry.max-size:100}") int maxSize,
+        @Value("${analyzer.custom-registry.store-path:}") String storePath
+    ) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("analyzer.custom-registry.max-size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.store = storePath.isBlank() ? null : new CustomAnalyzerStore(Path.of(storePath));
+        if (store != null) {
+            try {
+                store.load().forEach((name, definition) -> analyzers.put(name, new Registered(definition, null)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read custom analyzer store " + storePath, e);
+            }
+        }
+    }
+
+    /**
+     * Compile a definition and register it under a name, replacing any previous definition.
+     * Returns true if a definition was replaced.
+     */
+    public boolean register(String name, CustomAnalyzerDefinition definition) {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid analyzer name: " + name);
+        }
+        definition.setName(name);
+        // Compile up front so an invalid definition is rejected rather than stored
+        Registered compiled = new Registered(definition, compile(name, definition));
+
+        Registered previous;
+        try {
+            synchronized (analyzers) {
+                if (!analyzers.containsKey(name) && analyzers.size() >= maxSize) {
+                    throw new IllegalArgumentException("At most " + maxSize + " custom analyzers can be registered");
+                }
+                if (store != null) {
+                    store.put(name, definition);
+                }
+                previous = analyzers.put(name, compiled);
+            }
+        } catch (IOException e) {
+            compiled.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            compiled.release();
+            throw e;
+        }
+        if (previous != null) {
+            previous.release();
+        }
+        return previous != null;
+    }
+
+    /**
+     * Remove a registered analyzer; returns false if there was none.
+     */
+    public boolean delete(String name) {
+        Registered removed;
+        synchronized (analyzers) {
+            if (!analyzers.containsKey(name)) {
+                return false;
+            }
+            if (store != null) {
+                try {
+                    store.delete(name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            removed = analyzers.remove(name);
+        }
+        removed.release();
+        return true;
+    }
+
+    /**
+     * Lease the analyzer registered under a name (without the {@code custom.} prefix).
+     */
+    public AnalyzerLease acquire(String name) {
+        while (true) {
+            Registered registered = analyzers.get(name);
+            if (registered == null) {
+                throw new IllegalArgumentException("Unknown analyzer: " + NAME_PREFIX + name);
+            }
+            SharedAnalyzer analyzer = registered.analyzer(name);
+            AnalyzerLease lease = analyzer != null ? analyzer.acquire() : null;
+            if (lease != null) {
+                return lease;
+            }
+            // Replaced or deleted between the lookup and the lease; look again
+        }
+    }
+
+    /**
+     * The definition registered under a name, or null if there is none.
+     */
+    public CustomAnalyzerDefinition getDefinition(String name) {
+        Registered registered = analyzers.get(name);
+        return registered != null ? registered.definition : null;
+    }
+
+    /**
+     * All registered definitions, by name.
+     */
+    public List<CustomAnalyzerDefinition> getDefinitions() {
+        List<CustomAnalyzerDefinition> definitions = new ArrayList<>();
+        analyzers.values().forEach(registered -> definitions.add(registered.definition));
+        definitions.sort(Comparator.comparing(CustomAnalyzerDefinition::getName));
+        return definitions;
+    }
+
+    public int size() {
+        return analyzers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        List<Registered> removed;
+        synchronized (analyzers) {
+            removed = new ArrayList<>(analyzers.values());
+            analyzers.clear();
+        }
+        removed.forEach(Registered::release);
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                // Every record was already forced to disk
+            }
+        }
+    }
+
+    private static SharedAnalyzer compile(String name, CustomAnalyzerDefinition definition) {
+        String key = NAME_PREFIX + name + "@" + CustomAnalyzerFingerprint.of(definition);
+        return new SharedAnalyzer(key, CustomAnalyzerFactory.build(definition));
+    }
+
+    /**
+     * A registered definition and its analyzer, which restored definitions compile on first use.
+     */
+    private static final class Registered {
+        private final CustomAnalyzerDefinition definition;
+        private SharedAnalyzer analyzer;
+        private boolean released;
+
+        private Registered(CustomAnalyzerDefinition definition, SharedAnalyzer analyzer) {
+            this.definition = definition;
+            this.analyzer = analyzer;
+        }
+
+        /**
+         * The compiled analyzer, or null once this registration has been replaced or deleted.
+         */
+        private synchronized SharedAnalyzer analyzer(String name) {
+            if (released) {
+                return null;
+            }
+            if (analyzer == null) {
+                analyzer = compile(name, definition);
+            }
+            return analyzer;
+        }
+
+        private synchronized void release() {
+            released = true;
+            if (analyzer != null) {
+                analyzer.release();
+            }
+        }
+    }
+}
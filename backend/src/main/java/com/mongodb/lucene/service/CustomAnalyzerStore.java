@@ -0,0 +1,252 @@
+package com.mongodb.lucene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of registered custom analyzer definitions. Every registration or deletion
+ * appends one checksummed record; on startup the file is memory-mapped and replayed, the last
+ * record for a name winning. A record whose length or checksum is damaged is skipped by scanning
+ * ahead for the next intact record, so the records after it survive; only when none follows is the
+ * rest treated as a write torn by a crash and cut off. A copy of a damaged log is kept first. When
+ * replaced and deleted records outnumber the live ones, the log is compacted by writing the live
+ * definitions to a new file that atomically replaces the old one. Compaction happens after an
+ * append is durable and never fails it: a failed compaction is logged and retried on a later write.
+ * <p>
+ * Record layout: body length (int), CRC32C of the body (int), then the body: operation (byte),
+ * name length (short), name (UTF-8) and, for a put, the definition as JSON.
+ */
+final class CustomAnalyzerStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomAnalyzerStore.class);
+
+    private static final int MAGIC = 0x4C415201; // "LAR" + format version 1
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // Body length and checksum
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    // Below this many records compaction is not worth a file rewrite
+    private static final int MIN_RECORDS_TO_COMPACT = 64;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path path;
+    // JSON of the live definitions, kept to rewrite them on compaction
+    private final Map<String, byte[]> live = new LinkedHashMap<>();
+    private FileChannel channel;
+    private int records;
+
+    CustomAnalyzerStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Replay the log and open it for appending. Returns the live definitions in registration
+     * order; definitions that no longer deserialize are kept in the log but not returned.
+     */
+    synchronized Map<String, CustomAnalyzerDefinition> load() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC));
+        } else {
+            replay();
+        }
+
+        Map<String, CustomAnalyzerDefinition> definitions = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : live.entrySet()) {
+            try {
+                CustomAnalyzerDefinition definition = MAPPER.readValue(entry.getValue(), CustomAnalyzerDefinition.class);
+                definition.setName(entry.getKey());
+                definitions.put(entry.getKey(), definition);
+            } catch (IOException e) {
+                log.warn("Skipping stored custom analyzer {}: its definition no longer loads: {}", entry.getKey(), e.toString());
+            }
+        }
+        maybeCompact();
+        return definitions;
+    }
+
+    private void replay() throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a custom analyzer store: " + path);
+        }
+        CRC32C crc = new CRC32C();
+        int position = Integer.BYTES;
+        boolean damaged = false;
+        while (position < buffer.limit()) {
+            ByteBuffer body = frame(buffer, position, crc);
+            if (body != null) {
+                position += HEADER_BYTES + body.remaining();
+                apply(body);
+                records++;
+                continue;
+            }
+            if (!damaged) {
+                keepCopy();
+                damaged = true;
+            }
+            // The length of a damaged record cannot be trusted, so look for the next record byte by byte
+            int next = position + 1;
+            while (next < buffer.limit() && frame(buffer, next, crc) == null) {
+                next++;
+            }
+            if (next == buffer.limit()) {
+                // Nothing valid follows: the last write was torn
+                break;
+            }
+            log.warn("Skipping {} corrupted bytes at offset {} of {}", next - position, position, path);
+            position = next;
+        }
+        if (position < channel.size()) {
+            log.warn("Truncating {} torn bytes at the end of {}", channel.size() - position, path);
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    /**
+     * The body of the record at the given offset, or null if no complete record with a matching
+     * checksum starts there.
+     */
+    private static ByteBuffer frame(ByteBuffer buffer, int offset, CRC32C crc) {
+        if (buffer.limit() - offset < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length < 1 + Short.BYTES || length > buffer.limit() - offset - HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer body = buffer.slice(offset + HEADER_BYTES, length);
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+            return null;
+        }
+        byte operation = body.get(0);
+        short nameLength = body.getShort(1);
+        if ((operation != PUT && operation != DELETE) || nameLength < 0 || nameLength > length - 1 - Short.BYTES) {
+            return null;
+        }
+        return body;
+    }
+
+    /**
+     * Copy the log as found before anything in it is skipped or cut off.
+     */
+    private void keepCopy() throws IOException {
+        Path copy = path.resolveSibling(path.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        Files.copy(path, copy, StandardCopyOption.REPLACE_EXISTING);
+        log.warn("{} is damaged; a copy was kept as {}", path, copy);
+    }
+
+    private void apply(ByteBuffer body) {
+        byte operation = body.get();
+        byte[] name = new byte[body.getShort()];
+        body.get(name);
+        String key = new String(name, StandardCharsets.UTF_8);
+        if (operation == PUT) {
+            byte[] json = new byte[body.remaining()];
+            body.get(json);
+            live.put(key, json);
+        } else {
+            live.remove(key);
+        }
+    }
+
+    synchronized void put(String name, CustomAnalyzerDefinition definition) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(definition);
+        append(PUT, name, json);
+        live.put(name, json);
+        maybeCompact();
+    }
+
+    synchronized void delete(String name) throws IOException {
+        append(DELETE, name, new byte[0]);
+        live.remove(name);
+        maybeCompact();
+    }
+
+    private void append(byte operation, String name, byte[] json) throws IOException {
+        if (!channel.isOpen()) {
+            // A failed compaction could not reopen the log; try again now
+            open();
+        }
+        channel.write(record(operation, name, json));
+        channel.force(false);
+        records++;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    private static ByteBuffer record(byte operation, String name, byte[] json) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + Short.BYTES + nameBytes.length + json.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + length);
+        record.putInt(length).putInt(0).put(operation).putShort((short) nameBytes.length).put(nameBytes).put(json);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private void maybeCompact() {
+        if (records < MIN_RECORDS_TO_COMPACT || records <= 2 * live.size()) {
+            return;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC));
+                for (Map.Entry<String, byte[]> entry : live.entrySet()) {
+                    out.write(record(PUT, entry.getKey(), entry.getValue()));
+                }
+                out.force(true);
+            }
+            channel.close();
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                records = live.size();
+            } finally {
+                // The old log if the move failed, so appends carry on either way
+                open();
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact {}; will retry on a later write: {}", path, e.toString());
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException ignored) {
+                // Overwritten by the next attempt
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
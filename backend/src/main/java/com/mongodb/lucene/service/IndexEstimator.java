@@ -0,0 +1,173 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.EstimateRequest;
+import com.mongodb.lucene.model.IndexEstimate;
+import com.mongodb.lucene.model.SampleDocument;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SerialMergeScheduler;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+/**
+ * Estimates the storage and indexing cost of an analyzer configuration by indexing a sample corpus
+ * into a throwaway in-memory directory. Only the analyzed text field is indexed, without stored
+ * fields or compound files, so the file sizes show what the analysis chain itself costs.
+ */
+@Service
+public class IndexEstimator {
+
+    // Lucene file extensions by the part of the index they hold
+    private static final Map<String, String> CATEGORIES = Map.ofEntries(
+        Map.entry("tim", "terms"), Map.entry("tip", "terms"), Map.entry("tmd", "terms"),
+        Map.entry("doc", "postings"),
+        Map.entry("pos", "positions"), Map.entry("pay", "positions"),
+        Map.entry("nvd", "norms"), Map.entry("nvm", "norms")
+    );
+
+    @Autowired
+    private AnalyzerService analyzerService;
+
+    @Autowired
+    private CorpusService corpusService;
+
+    @Autowired
+    private AnalysisExecutor executor;
+
+    /**
+     * Index a corpus with the requested analyzer and measure the result, or return null if the
+     * corpus does not exist.
+     */
+    public IndexEstimate estimate(String corpus, EstimateRequest request) throws IOException {
+        List<SampleDocument> documents = corpusService.getDocuments(corpus);
+        if (documents == null) {
+            return null;
+        }
+        try (AnalyzerLease lease = analyzerService.acquireAnalyzer(
+                 request.getIndexAnalyzer(),
+                 request.getCustomIndexAnalyzer()
+             )) {
+            Analyzer analyzer = request.isUseAutocomplete()
+                ? lease.getAutocompleteAnalyzer(request.getAutocompleteConfig(), false)
+                : lease.getAnalyzer();
+            String analyzerUsed = request.isUseAutocomplete()
+                ? lease.getKey() + " [" + AutocompleteAnalyzer.key(request.getAutocompleteConfig(), false) + "]"
+                : lease.getKey();
+
+            // Run on a platform worker: per-thread allocation is not measurable on virtual threads
+            Callable<IndexEstimate> task = () -> index(analyzer, documents);
+            IndexEstimate estimate = executor.invokeAll(List.of(task)).get(0);
+            estimate.setCorpus(corpus);
+            estimate.setAnalyzerUsed(analyzerUsed);
+            return estimate;
+        }
+    }
+
+    private static IndexEstimate index(Analyzer analyzer, List<SampleDocument> documents) throws IOException {
+        IndexEstimate estimate = new IndexEstimate();
+        try (ByteBuffersDirectory directory = new ByteBuffersDirectory()) {
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setUseCompoundFile(false)
+                // Merge on this thread so its allocations are counted
+                .setMergeScheduler(new SerialMergeScheduler());
+            config.getMergePolicy().setNoCFSRatio(0.0);
+
+            try (IndexWriter writer = new IndexWriter(directory, config)) {
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                for (SampleDocument document : documents) {
+                    Document doc = new Document();
+                    doc.add(new TextField(CorpusIndex.TEXT_FIELD, document.getText(), Field.Store.NO));
+                    writer.addDocument(doc);
+                }
+                estimate.setIndexingBufferBytes(writer.ramBytesUsed());
+                writer.commit();
+                long elapsed = System.nanoTime() - start;
+                long allocatedAfter = allocatedBytes();
+
+                estimate.setIndexingMillis(elapsed / 1e6);
+                estimate.setDocsPerSecond(elapsed > 0 ? documents.size() * 1e9 / elapsed : 0);
+                if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                    estimate.setAllocatedBytes(allocatedAfter - allocatedBefore);
+                }
+
+                // Sizes are measured on a single segment, like a fully merged production index
+                writer.forceMerge(1);
+                writer.commit();
+            }
+
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                long uniqueTerms = 0;
+                long totalTokens = 0;
+                for (LeafReaderContext leaf : reader.leaves()) {
+                    Terms terms = leaf.reader().terms(CorpusIndex.TEXT_FIELD);
+                    if (terms != null) {
+                        uniqueTerms += terms.size();
+                        totalTokens += terms.getSumTotalTermFreq();
+                    }
+                }
+                estimate.setDocumentCount(reader.numDocs());
+                estimate.setUniqueTerms(uniqueTerms);
+                estimate.setTotalTokens(totalTokens);
+            }
+
+            measureFiles(directory, estimate);
+        }
+        return estimate;
+    }
+
+    private static void measureFiles(ByteBuffersDirectory directory, IndexEstimate estimate) throws IOException {
+        Map<String, Long> fileBytes = new TreeMap<>();
+        Map<String, Long> categoryBytes = new LinkedHashMap<>();
+        for (String category : List.of("terms", "postings", "positions", "norms", "other")) {
+            categoryBytes.put(category, 0L);
+        }
+        long total = 0;
+        for (String file : directory.listAll()) {
+            long length = directory.fileLength(file);
+            int dot = file.lastIndexOf('.');
+            String extension = dot >= 0 ? file.substring(dot + 1) : file.replaceFirst("_\\d+$", "");
+            fileBytes.merge(extension, length, Long::sum);
+            categoryBytes.merge(CATEGORIES.getOrDefault(extension, "other"), length, Long::sum);
+            total += length;
+        }
+
+        int documentCount = Math.max(1, estimate.getDocumentCount());
+        Map<String, Double> perDocument = new LinkedHashMap<>();
+        categoryBytes.forEach((category, bytes) -> perDocument.put(category, (double) bytes / documentCount));
+        estimate.setFileBytes(fileBytes);
+        estimate.setBytesPerDocument(perDocument);
+        estimate.setIndexBytes(total);
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+     */
+    static long allocatedBytes() {
+        if (Thread.currentThread().isVirtual()
+                || !(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return threads.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mongodb.lucene.service;
+
+import java.util.Locale;
+
+/**
+ * How query terms are matched against index terms.
+ * EXACT compares analyzed terms; the other modes treat each whitespace-separated part of the query
+ * text as a pattern, normalized by the query analyzer the way Lucene's query parsers do for
+ * multi-term queries.
+ */
+public enum MatchMode {
+    EXACT,
+    PREFIX,
+    WILDCARD,
+    REGEX,
+    FUZZY;
+
+    /**
+     * Parse a mode name, defaulting to EXACT when none is given.
+     */
+    public static MatchMode of(String name) {
+        if (name == null || name.isEmpty()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown match mode: " + name);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.AnalyzerWrapper;
+
+/**
+ * Reuses the components of a wrapped analyzer through a {@link PooledReuseStrategy} instead of
+ * the wrapped analyzer's ThreadLocal. Must be the outermost wrapper: other wrappers should wrap
+ * the raw analyzer and be pooled themselves.
+ */
+final class PooledAnalyzer extends AnalyzerWrapper {
+    private final Analyzer delegate;
+    private final PooledReuseStrategy pool;
+
+    PooledAnalyzer(Analyzer delegate) {
+        this(delegate, new PooledReuseStrategy());
+    }
+
+    PooledAnalyzer(Analyzer delegate, PooledReuseStrategy pool) {
+        super(pool);
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    @Override
+    protected Analyzer getWrappedAnalyzer(String fieldName) {
+        return delegate;
+    }
+
+    @Override
+    protected TokenStreamComponents wrapComponents(String fieldName, TokenStreamComponents components) {
+        return pool.poolable(components);
+    }
+
+    /**
+     * Drop the pooled components; the wrapped analyzer is closed by its owner.
+     */
+    @Override
+    public void close() {
+        pool.clear();
+        super.close();
+    }
+}
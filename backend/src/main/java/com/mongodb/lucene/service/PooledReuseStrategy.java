@@ -0,0 +1,126 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.Analyzer.TokenStreamComponents;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reuse strategy that keeps idle TokenStreamComponents in a small lock-free pool instead of a
+ * ThreadLocal. A token stream is checked out of the pool when analysis starts and handed back
+ * when the stream is closed, so the number of component instances follows the number of
+ * concurrent analyses rather than the number of threads that ever ran one. Components are
+ * shared across field names, like {@link Analyzer#GLOBAL_REUSE_STRATEGY}.
+ * <p>
+ * One instance serves exactly one analyzer, whose components must be wrapped with
+ * {@link #poolable} so closing their stream returns them here.
+ */
+public final class PooledReuseStrategy extends Analyzer.ReuseStrategy {
+
+    private final AtomicReferenceArray<TokenStreamComponents> pool;
+
+    /**
+     * Pool sized to the number of available cores.
+     */
+    public PooledReuseStrategy() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public PooledReuseStrategy(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.pool = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public TokenStreamComponents getReusableComponents(Analyzer analyzer, String fieldName) {
+        int capacity = pool.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < capacity; i++) {
+            int slot = (start + i) % capacity;
+            if (pool.get(slot) != null) {
+                TokenStreamComponents components = pool.getAndSet(slot, null);
+                if (components != null) {
+                    returning(components).checkedOut = true;
+                    return components;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void setReusableComponents(Analyzer analyzer, String fieldName, TokenStreamComponents components) {
+        // Called with freshly created components, which are in use until their stream is closed
+        returning(components).checkedOut = true;
+    }
+
+    /**
+     * Add the filter that returns the components to this pool when their stream is closed.
+     */
+    public TokenStreamComponents poolable(TokenStreamComponents components) {
+        ReturningFilter tail = new ReturningFilter(components.getTokenStream());
+        TokenStreamComponents pooled = new TokenStreamComponents(components.getSource(), tail);
+        tail.components = pooled;
+        return pooled;
+    }
+
+    /**
+     * Drop all idle components.
+     */
+    public void clear() {
+        for (int i = 0; i < pool.length(); i++) {
+            pool.set(i, null);
+        }
+    }
+
+    private void giveBack(TokenStreamComponents components) {
+        int capacity = pool.length();
+        int start = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < capacity; i++) {
+            if (pool.compareAndSet((start + i) % capacity, null, components)) {
+                return;
+            }
+        }
+        // Pool is full: let these components be garbage collected
+    }
+
+    private static ReturningFilter returning(TokenStreamComponents components) {
+        if (!(components.getTokenStream() instanceof ReturningFilter)) {
+            throw new IllegalStateException("Components were not created through PooledReuseStrategy.poolable");
+        }
+        return (ReturningFilter) components.getTokenStream();
+    }
+
+    /**
+     * Outermost filter of pooled components; returns them to the pool on close.
+     */
+    private final class ReturningFilter extends TokenFilter {
+        private TokenStreamComponents components;
+        private boolean checkedOut;
+
+        private ReturningFilter(TokenStream input) {
+            super(input);
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            return input.incrementToken();
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            // Guard against double close handing the same components out twice
+            if (checkedOut) {
+                checkedOut = false;
+                giveBack(components);
+            }
+        }
+    }
+}
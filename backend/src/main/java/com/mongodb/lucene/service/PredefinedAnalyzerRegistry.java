@@ -0,0 +1,194 @@
+package com.mongodb.lucene.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.ar.ArabicAnalyzer;
+import org.apache.lucene.analysis.bg.BulgarianAnalyzer;
+import org.apache.lucene.analysis.br.BrazilianAnalyzer;
+import org.apache.lucene.analysis.ca.CatalanAnalyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.analysis.ckb.SoraniAnalyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.core.SimpleAnalyzer;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.cz.CzechAnalyzer;
+import org.apache.lucene.analysis.da.DanishAnalyzer;
+import org.apache.lucene.analysis.de.GermanAnalyzer;
+import org.apache.lucene.analysis.el.GreekAnalyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.eu.BasqueAnalyzer;
+import org.apache.lucene.analysis.fa.PersianAnalyzer;
+import org.apache.lucene.analysis.fi.FinnishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.ga.IrishAnalyzer;
+import org.apache.lucene.analysis.gl.GalicianAnalyzer;
+import org.apache.lucene.analysis.hi.HindiAnalyzer;
+import org.apache.lucene.analysis.hu.HungarianAnalyzer;
+import org.apache.lucene.analysis.hy.ArmenianAnalyzer;
+import org.apache.lucene.analysis.id.IndonesianAnalyzer;
+import org.apache.lucene.analysis.it.ItalianAnalyzer;
+import org.apache.lucene.analysis.ja.JapaneseAnalyzer;
+import org.apache.lucene.analysis.lv.LatvianAnalyzer;
+import org.apache.lucene.analysis.morfologik.MorfologikAnalyzer;
+import org.apache.lucene.analysis.nl.DutchAnalyzer;
+import org.apache.lucene.analysis.no.NorwegianAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.ro.RomanianAnalyzer;
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.sv.SwedishAnalyzer;
+import org.apache.lucene.analysis.th.ThaiAnalyzer;
+import org.apache.lucene.analysis.tr.TurkishAnalyzer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of long-lived predefined analyzers.
+ * Each analyzer is created once on first use and shared by all requests. Its
+ * {@link SharedAnalyzer} wraps it in a {@link PooledAnalyzer}, so TokenStreamComponents are reused
+ * from a bounded {@link PooledReuseStrategy} pool instead of being rebuilt per request or kept in
+ * a ThreadLocal for every virtual thread that ever used the analyzer.
+ * Analyzers backed by large dictionaries load them through {@link SharedDictionary}, so nothing is
+ * read until one of them is first used.
+ */
+@Component
+public class PredefinedAnalyzerRegistry {
+
+    private static final Map<String, SharedDictionary<?>> DICTIONARIES = Map.of(
+        "lucene.kuromoji", SharedDictionary.KUROMOJI,
+        "lucene.morfologik", SharedDictionary.MORFOLOGIK,
+        "lucene.smartcn", SharedDictionary.SMARTCN
+    );
+
+    private final Map<String, SharedAnalyzer> analyzers = new ConcurrentHashMap<>();
+
+    /**
+     * The shared dictionary behind a predefined analyzer, or null if it does not use one.
+     */
+    static SharedDictionary<?> getDictionary(String analyzerName) {
+        return DICTIONARIES.get(analyzerName.toLowerCase());
+    }
+
+    /**
+     * Lease the shared analyzer instance for a predefined analyzer name.
+     */
+    public AnalyzerLease acquire(String analyzerName) {
+        if (analyzerName == null) {
+            throw new IllegalArgumentException("Analyzer name is required");
+        }
+        String key = analyzerName.toLowerCase();
+        AnalyzerLease lease = analyzers.computeIfAbsent(key, name -> new SharedAnalyzer(name, create(name))).acquire();
+        if (lease == null) {
+            throw new IllegalStateException("Analyzer registry is closed");
+        }
+        return lease;
+    }
+
+    /**
+     * Close all analyzers, releasing their per-thread reuse state.
+     */
+    @PreDestroy
+    public void close() {
+        analyzers.values().forEach(SharedAnalyzer::release);
+        analyzers.clear();
+    }
+
+    /**
+     * Create a new analyzer instance by (lowercase) name
+     */
+    private static Analyzer create(String analyzerName) {
+        switch (analyzerName) {
+            // Base analyzers - use empty stopword set for standard to match Atlas Search behavior
+            case "lucene.standard":
+                return new StandardAnalyzer(CharArraySet.EMPTY_SET);
+            case "lucene.whitespace":
+                return new WhitespaceAnalyzer();
+            case "lucene.simple":
+                return new SimpleAnalyzer();
+            case "lucene.keyword":
+                return new KeywordAnalyzer();
+
+            // Language-specific analyzers
+            case "lucene.arabic":
+                return new ArabicAnalyzer();
+            case "lucene.armenian":
+                return new ArmenianAnalyzer();
+            case "lucene.basque":
+                return new BasqueAnalyzer();
+            case "lucene.brazilian":
+                return new BrazilianAnalyzer();
+            case "lucene.bulgarian":
+                return new BulgarianAnalyzer();
+            case "lucene.catalan":
+                return new CatalanAnalyzer();
+            case "lucene.cjk":
+                return new CJKAnalyzer();
+            case "lucene.czech":
+                return new CzechAnalyzer();
+            case "lucene.danish":
+                return new DanishAnalyzer();
+            case "lucene.dutch":
+                return new DutchAnalyzer();
+            case "lucene.english":
+                return new EnglishAnalyzer();
+            case "lucene.finnish":
+                return new FinnishAnalyzer();
+            case "lucene.french":
+                return new FrenchAnalyzer();
+            case "lucene.galician":
+                return new GalicianAnalyzer();
+            case "lucene.german":
+                return new GermanAnalyzer();
+            case "lucene.greek":
+                return new GreekAnalyzer();
+            case "lucene.hindi":
+                return new HindiAnalyzer();
+            case "lucene.hungarian":
+                return new HungarianAnalyzer();
+            case "lucene.indonesian":
+                return new IndonesianAnalyzer();
+            case "lucene.irish":
+                return new IrishAnalyzer();
+            case "lucene.italian":
+                return new ItalianAnalyzer();
+            case "lucene.kuromoji":
+                SharedDictionary.KUROMOJI.get();
+                return new JapaneseAnalyzer();
+            case "lucene.latvian":
+                return new LatvianAnalyzer();
+            case "lucene.morfologik":
+                return new MorfologikAnalyzer(SharedDictionary.MORFOLOGIK.get());
+            case "lucene.norwegian":
+                return new NorwegianAnalyzer();
+            case "lucene.persian":
+                return new PersianAnalyzer();
+            case "lucene.portuguese":
+                return new PortugueseAnalyzer();
+            case "lucene.romanian":
+                return new RomanianAnalyzer();
+            case "lucene.russian":
+                return new RussianAnalyzer();
+            case "lucene.smartcn":
+                SharedDictionary.SMARTCN.get();
+                return new SmartChineseAnalyzer();
+            case "lucene.sorani":
+                return new SoraniAnalyzer();
+            case "lucene.spanish":
+                return new SpanishAnalyzer();
+            case "lucene.swedish":
+                return new SwedishAnalyzer();
+            case "lucene.thai":
+                return new ThaiAnalyzer();
+            case "lucene.turkish":
+                return new TurkishAnalyzer();
+
+            default:
+                throw new IllegalArgumentException("Unknown analyzer: " + analyzerName);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.AutocompleteConfig;
+import com.mongodb.lucene.model.StageProfile;
+import com.mongodb.lucene.model.TokenTrace;
+import org.apache.lucene.analysis.Analyzer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reference-counted holder for an analyzer that is shared between requests.
+ * The owner (a registry or cache) holds one reference and every in-flight request holds a lease.
+ * The analyzer is closed once the owner has released it and the last lease has been closed,
+ * so evicting or replacing an analyzer never breaks a request that is still using it.
+ * Autocomplete wrappers around the analyzer are cached here and share its lifetime.
+ * Components of the analyzer and of its cached wrappers are reused through a bounded pool
+ * rather than per thread, see {@link PooledReuseStrategy}.
+ */
+public final class SharedAnalyzer {
+    // Bounds the wrappers kept per analyzer; further settings get a wrapper owned by the lease
+    private static final int MAX_AUTOCOMPLETE_WRAPPERS = 16;
+
+    private final String key;
+    private final Analyzer analyzer;
+    private final Analyzer pooled;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private final Map<String, Analyzer> autocompleteAnalyzers = new ConcurrentHashMap<>();
+
+    public SharedAnalyzer(String key, Analyzer analyzer) {
+        this.key = key;
+        this.analyzer = analyzer;
+        this.pooled = new PooledAnalyzer(analyzer);
+    }
+
+    /**
+     * Take a lease on the analyzer, or return null if it has already been closed.
+     */
+    public AnalyzerLease acquire() {
+        int count;
+        do {
+            count = refCount.get();
+            if (count == 0) {
+                return null;
+            }
+        } while (!refCount.compareAndSet(count, count + 1));
+        return new AnalyzerLease(this);
+    }
+
+    /**
+     * Drop one reference, closing the analyzer when none remain.
+     */
+    public void release() {
+        if (refCount.decrementAndGet() == 0) {
+            autocompleteAnalyzers.values().forEach(Analyzer::close);
+            pooled.close();
+            analyzer.close();
+        }
+    }
+
+    /**
+     * Get the cached autocomplete wrapper around this analyzer for the given settings, or null if
+     * it is not cached and the cache is full.
+     */
+    Analyzer autocomplete(AutocompleteConfig config, boolean query) {
+        String wrapperKey = AutocompleteAnalyzer.key(config, query);
+        Analyzer wrapper = autocompleteAnalyzers.get(wrapperKey);
+        if (wrapper != null || autocompleteAnalyzers.size() >= MAX_AUTOCOMPLETE_WRAPPERS) {
+            return wrapper;
+        }
+        // Wrap the raw analyzer: the pooling layer has to stay outermost
+        return autocompleteAnalyzers.computeIfAbsent(wrapperKey,
+            k -> new PooledAnalyzer(new AutocompleteAnalyzer(analyzer, config, query)));
+    }
+
+    /**
+     * A new autocomplete wrapper for settings that are not cached. The caller must close it.
+     */
+    Analyzer uncachedAutocomplete(AutocompleteConfig config, boolean query) {
+        return new AutocompleteAnalyzer(analyzer, config, query);
+    }
+
+    /**
+     * Per-stage profile of analyzing a text, or null if this is not a custom analyzer.
+     */
+    List<StageProfile> profile(String text) throws IOException {
+        return CustomAnalyzerFactory.profile(analyzer, text);
+    }
+
+    /**
+     * Token stream after each stage of analyzing a text, or null if this is not a custom analyzer.
+     */
+    TokenTrace trace(String text) throws IOException {
+        return CustomAnalyzerFactory.trace(analyzer, text);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Analyzer getAnalyzer() {
+        return pooled;
+    }
+}
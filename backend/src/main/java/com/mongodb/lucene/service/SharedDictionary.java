@@ -0,0 +1,169 @@
+package com.mongodb.lucene.service;
+
+import morfologik.stemming.Dictionary;
+import morfologik.stemming.polish.PolishStemmer;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.analysis.ja.JapaneseAnalyzer;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A large analysis dictionary that is loaded once, on first use, and shared by every analyzer
+ * built on it. Kuromoji and smartcn keep their dictionaries in process-wide singletons inside
+ * Lucene, so for them this only makes sure the load happens in one place where it can be measured;
+ * the morfologik dictionary is an ordinary object, so the loaded instance itself is shared.
+ * <p>
+ * The load runs on a platform thread so the heap it allocates can be counted. That figure includes
+ * short-lived garbage from decoding, so it is an upper bound of what the dictionary keeps; direct
+ * buffers the dictionary is copied into are counted separately.
+ */
+final class SharedDictionary<T> {
+
+    static final SharedDictionary<Void> KUROMOJI = new SharedDictionary<>(() -> {
+        consume(new JapaneseAnalyzer(), "日本語の辞書を読み込みます。");
+        return null;
+    });
+
+    static final SharedDictionary<Void> SMARTCN = new SharedDictionary<>(() -> {
+        consume(new SmartChineseAnalyzer(), "我们读取中文词典。");
+        return null;
+    });
+
+    static final SharedDictionary<Dictionary> MORFOLOGIK = new SharedDictionary<>(
+        () -> new PolishStemmer().getDictionary()
+    );
+
+    private final Callable<T> loader;
+    private final AtomicReference<FutureTask<T>> loading = new AtomicReference<>();
+    // Written before loaded is set, so readers that see loaded also see the rest
+    private volatile boolean loaded;
+    private T value;
+    private double loadMillis;
+    private long heapBytes = -1;
+    private long directBytes = -1;
+
+    SharedDictionary(Callable<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * The dictionary, loading it first if this is the first use. A failed load is retried on the
+     * next call.
+     */
+    T get() {
+        if (!loaded) {
+            load();
+        }
+        return value;
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    double getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * Heap allocated while loading, or -1 if not loaded or the JVM cannot tell.
+     */
+    long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Direct buffer memory taken while loading, or -1 if not loaded or the JVM cannot tell.
+     */
+    long getDirectBytes() {
+        return directBytes;
+    }
+
+    /**
+     * Start the load unless one is already running, then wait for it. Callers share one future
+     * instead of a monitor, so virtual threads waiting on a slow load do not pin their carriers.
+     */
+    private void load() {
+        FutureTask<T> task = loading.get();
+        if (task == null) {
+            FutureTask<T> created = new FutureTask<>(this::measure);
+            if (loading.compareAndSet(null, created)) {
+                // Requests run on virtual threads, where per-thread allocation is not measurable
+                Thread.ofPlatform().name("dictionary-loader").daemon().start(created);
+                task = created;
+            } else {
+                task = loading.get();
+            }
+        }
+
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    task.get();
+                    return;
+                } catch (InterruptedException e) {
+                    // The load keeps going either way; finish it rather than start another
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // Let the next call try again
+                    loading.compareAndSet(task, null);
+                    throw new IllegalStateException("Could not load dictionary", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private T measure() throws Exception {
+        long allocatedBefore = IndexEstimator.allocatedBytes();
+        long directBefore = directBufferBytes();
+        long start = System.nanoTime();
+        T loadedValue = loader.call();
+        loadMillis = (System.nanoTime() - start) / 1e6;
+        long allocatedAfter = IndexEstimator.allocatedBytes();
+        long directAfter = directBufferBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            heapBytes = allocatedAfter - allocatedBefore;
+        }
+        if (directBefore >= 0 && directAfter >= 0) {
+            directBytes = Math.max(0, directAfter - directBefore);
+        }
+        value = loadedValue;
+        loaded = true;
+        return loadedValue;
+    }
+
+    private static void consume(Analyzer analyzer, String text) throws IOException {
+        try (analyzer; TokenStream stream = analyzer.tokenStream(null, text)) {
+            stream.reset();
+            while (stream.incrementToken()) {
+                // Tokenizing is what pulls the dictionaries in
+            }
+            stream.end();
+        }
+    }
+
+    /**
+     * Memory used by direct buffers across the JVM, or -1 if the JVM cannot tell.
+     */
+    private static long directBufferBytes() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return -1;
+    }
+}
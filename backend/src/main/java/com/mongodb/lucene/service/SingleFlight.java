@@ -0,0 +1,81 @@
+package com.mongodb.lucene.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent computations of the same key: the first caller computes the value and every
+ * caller arriving while it runs waits for that result instead of repeating the work. Failures are
+ * rethrown to all waiting callers. No lock is held while computing, and nothing is remembered once
+ * the computation finishes. If the computing caller is cancelled, waiting callers start over
+ * rather than failing along with it.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @FunctionalInterface
+    interface Computation<V> {
+        V compute() throws IOException;
+    }
+
+    V execute(K key, Computation<V> computation) throws IOException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing;
+        while ((existing = inFlight.putIfAbsent(key, flight)) != null) {
+            coalesced.incrementAndGet();
+            try {
+                return await(existing);
+            } catch (CancellationException e) {
+                // The computing caller was cancelled; try again, possibly computing it ourselves
+                inFlight.remove(key, existing);
+            }
+        }
+
+        try {
+            V value = computation.compute();
+            flight.complete(value);
+            return value;
+        } catch (InterruptedIOException e) {
+            flight.cancel(false);
+            throw e;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a concurrent analysis");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Number of callers that reused another caller's computation.
+     */
+    long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,158 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.StageProfile;
+import org.apache.lucene.analysis.CharFilter;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times each stage of an instrumented custom analyzer chain. A timing wrapper sits on the output
+ * of every stage (and on the raw input) and records the time spent pulling data through it, which
+ * includes the stages below. Each stage's own time is its wrapper's time minus that of the wrapper
+ * beneath it. Wrappers only exist in the single-use chain built for profiling, so the regular
+ * chain carries no instrumentation at all.
+ */
+final class StageProfiler implements StageTaps {
+
+    private final Stage source = new Stage(null, null);
+    private final List<Stage> charFilters = new ArrayList<>();
+    private final Stage tokenizer;
+    private final List<Stage> tokenFilters = new ArrayList<>();
+
+    StageProfiler(List<String> charFilterTypes, String tokenizerType, List<String> tokenFilterTypes) {
+        charFilterTypes.forEach(type -> charFilters.add(new Stage("charFilter", type)));
+        this.tokenizer = new Stage("tokenizer", tokenizerType);
+        tokenFilterTypes.forEach(type -> tokenFilters.add(new Stage("tokenFilter", type)));
+    }
+
+    @Override
+    public Reader source(Reader reader) {
+        return new TimingCharFilter(reader, source);
+    }
+
+    @Override
+    public Reader charFilter(int index, Reader reader) {
+        return new TimingCharFilter(reader, charFilters.get(index));
+    }
+
+    @Override
+    public TokenStream tokenizer(TokenStream stream) {
+        return new TimingTokenFilter(stream, tokenizer);
+    }
+
+    @Override
+    public TokenStream tokenFilter(int index, TokenStream stream) {
+        return new TimingTokenFilter(stream, tokenFilters.get(index));
+    }
+
+    /**
+     * Own time and data flow of every stage, in chain order.
+     */
+    List<StageProfile> results() {
+        List<StageProfile> results = new ArrayList<>();
+        Stage previous = source;
+        for (Stage stage : charFilters) {
+            results.add(stage.profile(previous, 0));
+            previous = stage;
+        }
+        results.add(tokenizer.profile(previous, 0));
+        previous = tokenizer;
+        for (Stage stage : tokenFilters) {
+            results.add(stage.profile(previous, previous.tokensOut));
+            previous = stage;
+        }
+        return results;
+    }
+
+    private static final class Stage {
+        private final String kind;
+        private final String type;
+        private long nanos;
+        private long charsOut;
+        private long tokensOut;
+
+        private Stage(String kind, String type) {
+            this.kind = kind;
+            this.type = type;
+        }
+
+        private StageProfile profile(Stage below, long tokensIn) {
+            return new StageProfile(kind, type, Math.max(0, nanos - below.nanos), below.charsOut, charsOut,
+                tokensIn, tokensOut);
+        }
+    }
+
+    /**
+     * Counts the characters read through it. Offsets pass through unchanged to the char filter below.
+     */
+    private static final class TimingCharFilter extends CharFilter {
+        private final Stage stage;
+
+        private TimingCharFilter(Reader input, Stage stage) {
+            super(input);
+            this.stage = stage;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int read = input.read(buffer, offset, length);
+            stage.nanos += System.nanoTime() - start;
+            if (read > 0) {
+                stage.charsOut += read;
+            }
+            return read;
+        }
+
+        @Override
+        protected int correct(int currentOff) {
+            return currentOff;
+        }
+    }
+
+    /**
+     * Counts the tokens and term characters passing through it. Times reset and end as well, since
+     * some tokenizers read their whole input on reset.
+     */
+    private static final class TimingTokenFilter extends TokenFilter {
+        private final Stage stage;
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+
+        private TimingTokenFilter(TokenStream input, Stage stage) {
+            super(input);
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            long start = System.nanoTime();
+            boolean hasToken = input.incrementToken();
+            stage.nanos += System.nanoTime() - start;
+            if (hasToken) {
+                stage.tokensOut++;
+                stage.charsOut += termAtt.length();
+            }
+            return hasToken;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            long start = System.nanoTime();
+            super.reset();
+            stage.nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void end() throws IOException {
+            long start = System.nanoTime();
+            super.end();
+            stage.nanos += System.nanoTime() - start;
+        }
+    }
+}
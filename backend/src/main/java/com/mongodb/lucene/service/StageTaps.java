@@ -0,0 +1,24 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.TokenStream;
+
+import java.io.Reader;
+
+/**
+ * Hooks placed between the stages of an instrumented custom analyzer chain. Each hook receives the
+ * output of a stage and returns what the next stage reads, usually a pass-through wrapper that
+ * observes the data on its way.
+ */
+interface StageTaps {
+
+    /**
+     * The raw input, before any char filter.
+     */
+    Reader source(Reader reader);
+
+    Reader charFilter(int index, Reader reader);
+
+    TokenStream tokenizer(TokenStream stream);
+
+    TokenStream tokenFilter(int index, TokenStream stream);
+}
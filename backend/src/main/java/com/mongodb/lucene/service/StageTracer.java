@@ -0,0 +1,167 @@
+package com.mongodb.lucene.service;
+
+import com.mongodb.lucene.model.TokenBuffer;
+import com.mongodb.lucene.model.TokenTrace;
+import org.apache.lucene.analysis.CharFilter;
+import org.apache.lucene.analysis.TokenFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.KeywordAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionLengthAttribute;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the token stream after every token stage of an instrumented custom analyzer chain. A tap
+ * after the tokenizer and after each token filter appends the attributes of each token passing
+ * through it to one shared {@link TokenBuffer}, so the whole trace comes out of a single pass
+ * instead of re-running every prefix of the chain. A tap after the last char filter captures the
+ * text the tokenizer reads.
+ */
+final class StageTracer implements StageTaps {
+
+    private final int charFilterCount;
+    private final List<String> stages;
+    private final TokenBuffer tokens = new TokenBuffer();
+    private int[] tokenStages = new int[16];
+    private CapturingCharFilter filtered;
+
+    StageTracer(int charFilterCount, List<String> stages) {
+        this.charFilterCount = charFilterCount;
+        this.stages = stages;
+    }
+
+    @Override
+    public Reader source(Reader reader) {
+        return reader;
+    }
+
+    @Override
+    public Reader charFilter(int index, Reader reader) {
+        if (index < charFilterCount - 1) {
+            return reader;
+        }
+        filtered = new CapturingCharFilter(reader);
+        return filtered;
+    }
+
+    @Override
+    public TokenStream tokenizer(TokenStream stream) {
+        return new RecordingTokenFilter(stream, 0);
+    }
+
+    @Override
+    public TokenStream tokenFilter(int index, TokenStream stream) {
+        return new RecordingTokenFilter(stream, index + 1);
+    }
+
+    /**
+     * The recorded trace of the given original text.
+     */
+    TokenTrace result(String text) {
+        tokens.trim();
+        int[] stageColumn = Arrays.copyOf(tokenStages, tokens.size());
+        if (filtered == null) {
+            return new TokenTrace(text, new int[0], new int[0], stages, stageColumn, tokens);
+        }
+
+        // Walk the filtered text and keep the offsets where the shift to the original changes
+        String filteredText = filtered.captured.toString();
+        int[] filteredOffsets = new int[4];
+        int[] originalOffsets = new int[4];
+        int count = 0;
+        int shift = 0;
+        for (int offset = 0; offset <= filteredText.length(); offset++) {
+            int original = filtered.correctOffset(offset);
+            if (original - offset != shift) {
+                if (count == filteredOffsets.length) {
+                    filteredOffsets = Arrays.copyOf(filteredOffsets, count * 2);
+                    originalOffsets = Arrays.copyOf(originalOffsets, count * 2);
+                }
+                filteredOffsets[count] = offset;
+                originalOffsets[count] = original;
+                count++;
+                shift = original - offset;
+            }
+        }
+        return new TokenTrace(filteredText, Arrays.copyOf(filteredOffsets, count),
+            Arrays.copyOf(originalOffsets, count), stages, stageColumn, tokens);
+    }
+
+    private void record(int stage) {
+        if (tokens.size() == tokenStages.length) {
+            tokenStages = Arrays.copyOf(tokenStages, tokenStages.length * 2);
+        }
+        tokenStages[tokens.size()] = stage;
+    }
+
+    /**
+     * Keeps a copy of the characters read through it. Offsets pass through unchanged to the char
+     * filter below.
+     */
+    private static final class CapturingCharFilter extends CharFilter {
+        private final StringBuilder captured = new StringBuilder();
+
+        private CapturingCharFilter(Reader input) {
+            super(input);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = input.read(buffer, offset, length);
+            if (read > 0) {
+                captured.append(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        protected int correct(int currentOff) {
+            return currentOff;
+        }
+    }
+
+    /**
+     * Appends every token passing through it, as it is at this stage, to the shared buffer.
+     */
+    private final class RecordingTokenFilter extends TokenFilter {
+        private final int stage;
+        private final CharTermAttribute termAtt = addAttribute(CharTermAttribute.class);
+        private final PositionIncrementAttribute posIncAtt = addAttribute(PositionIncrementAttribute.class);
+        private final PositionLengthAttribute posLenAtt = addAttribute(PositionLengthAttribute.class);
+        private final OffsetAttribute offsetAtt = addAttribute(OffsetAttribute.class);
+        private final TypeAttribute typeAtt = addAttribute(TypeAttribute.class);
+        private final KeywordAttribute keywordAtt = addAttribute(KeywordAttribute.class);
+        private int position = -1;
+
+        private RecordingTokenFilter(TokenStream input, int stage) {
+            super(input);
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean incrementToken() throws IOException {
+            if (!input.incrementToken()) {
+                return false;
+            }
+            position += posIncAtt.getPositionIncrement();
+            record(stage);
+            tokens.add(termAtt.buffer(), termAtt.length(), position, offsetAtt.startOffset(),
+                offsetAtt.endOffset(), posLenAtt.getPositionLength(), typeAtt.type(),
+                keywordAtt.isKeyword() ? TokenBuffer.FLAG_KEYWORD : 0);
+            return true;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            position = -1;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.index.BaseTermsEnum;
+import org.apache.lucene.index.ImpactsEnum;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.util.BytesRef;
+
+import java.util.Arrays;
+
+/**
+ * The distinct terms of an {@link AnalyzedText} in sorted order, exposed as Lucene {@link Terms}.
+ * Because the enum supports {@code seekCeil}, {@link org.apache.lucene.util.automaton.CompiledAutomaton}
+ * can intersect an automaton with it and skip whole ranges of terms that cannot match, exactly as
+ * it does against an index. There are no postings: this is a term dictionary only.
+ */
+final class TermDictionary extends Terms {
+    private final BytesRef[] terms;
+    private final int[] termIds;
+
+    TermDictionary(AnalyzedText text) {
+        int count = text.termCount();
+        Integer[] order = new Integer[count];
+        BytesRef[] byId = new BytesRef[count];
+        for (int id = 0; id < count; id++) {
+            order[id] = id;
+            // References into the interned bytes; the hash is never modified once built
+            byId[id] = text.termBytes(id, new BytesRef());
+        }
+        Arrays.sort(order, (a, b) -> byId[a].compareTo(byId[b]));
+
+        this.terms = new BytesRef[count];
+        this.termIds = new int[count];
+        for (int ord = 0; ord < count; ord++) {
+            termIds[ord] = order[ord];
+            terms[ord] = byId[order[ord]];
+        }
+    }
+
+    /**
+     * Term id in the analyzed text of the term at the given sorted position.
+     */
+    int termId(long ord) {
+        return termIds[Math.toIntExact(ord)];
+    }
+
+    @Override
+    public TermsEnum iterator() {
+        return new DictionaryTermsEnum();
+    }
+
+    @Override
+    public long size() {
+        return terms.length;
+    }
+
+    @Override
+    public long getSumTotalTermFreq() {
+        return terms.length;
+    }
+
+    @Override
+    public long getSumDocFreq() {
+        return terms.length;
+    }
+
+    @Override
+    public int getDocCount() {
+        return 1;
+    }
+
+    @Override
+    public boolean hasFreqs() {
+        return false;
+    }
+
+    @Override
+    public boolean hasOffsets() {
+        return false;
+    }
+
+    @Override
+    public boolean hasPositions() {
+        return false;
+    }
+
+    @Override
+    public boolean hasPayloads() {
+        return false;
+    }
+
+    private final class DictionaryTermsEnum extends BaseTermsEnum {
+        private int ord = -1;
+
+        @Override
+        public SeekStatus seekCeil(BytesRef text) {
+            int index = Arrays.binarySearch(terms, text);
+            if (index >= 0) {
+                ord = index;
+                return SeekStatus.FOUND;
+            }
+            ord = -index - 1;
+            return ord < terms.length ? SeekStatus.NOT_FOUND : SeekStatus.END;
+        }
+
+        @Override
+        public void seekExact(long ord) {
+            this.ord = Math.toIntExact(ord);
+        }
+
+        @Override
+        public BytesRef next() {
+            if (ord + 1 >= terms.length) {
+                ord = terms.length;
+                return null;
+            }
+            return terms[++ord];
+        }
+
+        @Override
+        public BytesRef term() {
+            return terms[ord];
+        }
+
+        @Override
+        public long ord() {
+            return ord;
+        }
+
+        @Override
+        public int docFreq() {
+            return 1;
+        }
+
+        @Override
+        public long totalTermFreq() {
+            return 1;
+        }
+
+        @Override
+        public PostingsEnum postings(PostingsEnum reuse, int flags) {
+            throw new UnsupportedOperationException("Term dictionary has no postings");
+        }
+
+        @Override
+        public ImpactsEnum impacts(int flags) {
+            throw new UnsupportedOperationException("Term dictionary has no postings");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.automaton.CompiledAutomaton;
+import org.apache.lucene.util.automaton.Operations;
+import org.apache.lucene.util.automaton.RegExp;
+import org.apache.lucene.util.automaton.TooComplexToDeterminizeException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the terms shared by an index-side and a query-side analysis. Walks the distinct terms of
+ * whichever side has fewer and probes the other side's term hash with the interned UTF-8 bytes,
+ * so each match costs one hash lookup and no strings are created or re-hashed.
+ * <p>
+ * Prefix, wildcard, regex and fuzzy patterns are compiled to automata and intersected with the
+ * sorted index terms, visiting only the terms the automaton can accept.
+ */
+final class TermMatcher {
+
+    private TermMatcher() {}
+
+    /**
+     * Matched term ids on each side.
+     */
+    static final class Match {
+        private final BitSet indexMatched;
+        private final BitSet queryMatched;
+
+        private Match(BitSet indexMatched, BitSet queryMatched) {
+            this.indexMatched = indexMatched;
+            this.queryMatched = queryMatched;
+        }
+
+        boolean isIndexMatched(int termId) {
+            return indexMatched.get(termId);
+        }
+
+        boolean isQueryMatched(int termId) {
+            return queryMatched.get(termId);
+        }
+
+        /**
+         * Ids of matched index-side terms.
+         */
+        BitSet getIndexMatched() {
+            return indexMatched;
+        }
+    }
+
+    static Match match(AnalyzedText index, AnalyzedText query) {
+        BitSet indexMatched = new BitSet(index.termCount());
+        BitSet queryMatched = new BitSet(query.termCount());
+        boolean indexSmaller = index.termCount() <= query.termCount();
+        AnalyzedText smaller = indexSmaller ? index : query;
+        AnalyzedText larger = indexSmaller ? query : index;
+        BitSet smallerMatched = indexSmaller ? indexMatched : queryMatched;
+        BitSet largerMatched = indexSmaller ? queryMatched : indexMatched;
+
+        BytesRef scratch = new BytesRef();
+        for (int id = 0; id < smaller.termCount(); id++) {
+            int other = larger.findTerm(smaller.termBytes(id, scratch));
+            if (other >= 0) {
+                smallerMatched.set(id);
+                largerMatched.set(other);
+            }
+        }
+        return new Match(indexMatched, queryMatched);
+    }
+
+    /**
+     * Index terms accepted by each query pattern.
+     */
+    static final class PatternMatch {
+        private final BitSet indexMatched;
+        private final BitSet patternMatched;
+        private final Map<String, List<String>> expansions;
+
+        private PatternMatch(BitSet indexMatched, BitSet patternMatched, Map<String, List<String>> expansions) {
+            this.indexMatched = indexMatched;
+            this.patternMatched = patternMatched;
+            this.expansions = expansions;
+        }
+
+        boolean isIndexMatched(int termId) {
+            return indexMatched.get(termId);
+        }
+
+        boolean isPatternMatched(int patternIndex) {
+            return patternMatched.get(patternIndex);
+        }
+
+        BitSet getIndexMatched() {
+            return indexMatched;
+        }
+
+        /**
+         * Matched index terms per pattern, in term order.
+         */
+        Map<String, List<String>> getExpansions() {
+            return expansions;
+        }
+    }
+
+    static PatternMatch matchPatterns(AnalyzedText index, List<String> patterns, MatchMode mode, int maxEdits)
+            throws IOException {
+        TermDictionary dictionary = index.getTermDictionary();
+        BitSet indexMatched = new BitSet(index.termCount());
+        BitSet patternMatched = new BitSet(patterns.size());
+        Map<String, List<String>> expansions = new LinkedHashMap<>();
+
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            List<String> expanded = new ArrayList<>();
+            TermsEnum matches = compile(pattern, mode, maxEdits).getTermsEnum(dictionary);
+            while (matches.next() != null) {
+                int termId = dictionary.termId(matches.ord());
+                indexMatched.set(termId);
+                expanded.add(index.term(termId));
+            }
+            if (!expanded.isEmpty()) {
+                patternMatched.set(i);
+            }
+            expansions.put(pattern, expanded);
+        }
+        return new PatternMatch(indexMatched, patternMatched, expansions);
+    }
+
+    private static CompiledAutomaton compile(String pattern, MatchMode mode, int maxEdits) {
+        try {
+            switch (mode) {
+                case PREFIX:
+                    return new CompiledAutomaton(PrefixQuery.toAutomaton(new BytesRef(pattern)), null, true,
+                        Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, true);
+                case WILDCARD:
+                    return new CompiledAutomaton(WildcardQuery.toAutomaton(new Term("", pattern)), null, true,
+                        Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, false);
+                case REGEX:
+                    return new CompiledAutomaton(
+                        new RegExp(pattern).toAutomaton(Operations.DEFAULT_DETERMINIZE_WORK_LIMIT), null, true,
+                        Operations.DEFAULT_DETERMINIZE_WORK_LIMIT, false);
+                case FUZZY:
+                    if (maxEdits < 1 || maxEdits > 2) {
+                        throw new IllegalArgumentException("maxEdits must be 1 or 2");
+                    }
+                    return FuzzyQuery.getFuzzyAutomaton(pattern, maxEdits, 0, true);
+                default:
+                    throw new IllegalArgumentException("Not a pattern match mode: " + mode);
+            }
+        } catch (TooComplexToDeterminizeException e) {
+            throw new IllegalArgumentException("Pattern too complex: " + pattern);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisResultCacheTest {
+
+    private static final AnalysisResultCache.Key LOW = AnalysisResultCache.key("lucene.whitespace", "low", false, null);
+    private static final AnalysisResultCache.Key HIGH = AnalysisResultCache.key("lucene.whitespace", "high", false, null);
+    private static final AnalysisResultCache.Key CANDIDATE = AnalysisResultCache.key("lucene.whitespace", "candidate", false, null);
+
+    private final AnalyzedText small = tokenize("a");
+    private final AnalyzedText large = tokenize(distinctTerms(1000));
+
+    @Test
+    void keepsVictimsWhenTheCandidateLosesToAnyOfThem() {
+        AnalysisResultCache cache = cacheWhereLargeNeedsBothEntries();
+        cache.put(LOW, small);
+        cache.put(HIGH, small);
+        requested(cache, HIGH, 5);
+        requested(cache, CANDIDATE, 2);
+        long weight = cache.getWeightedSize();
+
+        cache.put(CANDIDATE, large);
+
+        assertEquals(1, cache.getRejectionCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertEquals(weight, cache.getWeightedSize());
+        assertNotNull(cache.get(LOW));
+        assertNotNull(cache.get(HIGH));
+        assertNull(cache.get(CANDIDATE));
+    }
+
+    @Test
+    void evictsAllVictimsWhenTheCandidateWins() {
+        AnalysisResultCache cache = cacheWhereLargeNeedsBothEntries();
+        cache.put(LOW, small);
+        cache.put(HIGH, small);
+        requested(cache, HIGH, 2);
+        requested(cache, CANDIDATE, 5);
+
+        cache.put(CANDIDATE, large);
+
+        assertEquals(0, cache.getRejectionCount());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(CANDIDATE));
+    }
+
+    @Test
+    void rejectsResultsLargerThanTheMainRegion() {
+        AnalysisResultCache cache = new AnalysisResultCache(DataSize.ofBytes(weight(small)), Duration.ofMinutes(1));
+
+        cache.put(CANDIDATE, large);
+
+        assertEquals(1, cache.getRejectionCount());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * A cache whose main region holds two small results, or the large one only after both are evicted.
+     */
+    private AnalysisResultCache cacheWhereLargeNeedsBothEntries() {
+        long smallWeight = weight(small);
+        long largeWeight = weight(large);
+        assertTrue(largeWeight >= 2 * smallWeight && largeWeight < 100 * smallWeight);
+        // Main region = max weight minus the 1% window; the window is too small to keep any result
+        long maxWeight = largeWeight;
+        while (maxWeight - Math.max(1, maxWeight / 100) < largeWeight) {
+            maxWeight++;
+        }
+        return new AnalysisResultCache(DataSize.ofBytes(maxWeight), Duration.ofMinutes(1));
+    }
+
+    private static void requested(AnalysisResultCache cache, AnalysisResultCache.Key key, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.get(key);
+        }
+    }
+
+    private static long weight(AnalyzedText text) {
+        // Matches the per-entry overhead the cache adds
+        return 160 + text.ramBytesUsed();
+    }
+
+    private static String distinctTerms(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("term").append(i).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static AnalyzedText tokenize(String text) {
+        try {
+            return AnalyzerService.tokenize(new WhitespaceAnalyzer(), text, true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyzedTextTest {
+
+    private static final String LONG_TEXT = "x".repeat(40 * 1024);
+
+    @Test
+    void keepsTermsTooLongForTheHash() throws Exception {
+        AnalyzedText analyzed = AnalyzerService.tokenize(new KeywordAnalyzer(), LONG_TEXT, true);
+
+        assertTrue(LONG_TEXT.length() > IndexWriter.MAX_TERM_LENGTH);
+        assertEquals(1, analyzed.getTokens().size());
+        assertEquals(1, analyzed.termCount());
+        assertEquals(0, analyzed.termId(0));
+        assertEquals(LONG_TEXT, analyzed.term(0));
+        assertEquals(new BytesRef(LONG_TEXT), analyzed.termBytes(0, new BytesRef()));
+        assertEquals(0, analyzed.findTerm(new BytesRef(LONG_TEXT)));
+        assertEquals(-1, analyzed.findTerm(new BytesRef(LONG_TEXT + "y")));
+    }
+
+    @Test
+    void numbersOversizedAndRegularTermsInOneSequence() {
+        AnalyzedText analyzed = new AnalyzedText();
+        add(analyzed, "short");
+        add(analyzed, LONG_TEXT);
+        add(analyzed, "other");
+        add(analyzed, LONG_TEXT);
+        add(analyzed, "short");
+        analyzed.finish();
+
+        assertEquals(3, analyzed.termCount());
+        assertEquals(0, analyzed.termId(0));
+        assertEquals(1, analyzed.termId(1));
+        assertEquals(2, analyzed.termId(2));
+        assertEquals(1, analyzed.termId(3));
+        assertEquals(0, analyzed.termId(4));
+        assertEquals(2, analyzed.findTerm(new BytesRef("other")));
+        assertEquals(1, analyzed.findTerm(new BytesRef(LONG_TEXT)));
+        assertEquals(LONG_TEXT, analyzed.term(1));
+    }
+
+    @Test
+    void matchesOversizedTermsAcrossTexts() throws Exception {
+        AnalyzedText index = AnalyzerService.tokenize(new KeywordAnalyzer(), LONG_TEXT, true);
+        AnalyzedText query = AnalyzerService.tokenize(new KeywordAnalyzer(), LONG_TEXT, true);
+
+        TermMatcher.Match match = TermMatcher.match(index, query);
+
+        assertTrue(match.getIndexMatched().get(0));
+    }
+
+    private static void add(AnalyzedText analyzed, String term) {
+        int position = analyzed.getTokens().size();
+        analyzed.add(term.toCharArray(), term.length(), position, 0, term.length(), 1, "word", 0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.mongodb.lucene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomAnalyzerStoreTest {
+
+    private final Path directory = createTempDirectory();
+    private final Path log = directory.resolve("custom-analyzers.log");
+
+    @Test
+    void skipsACorruptedRecordButKeepsTheOnesAfterIt() throws IOException {
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            store.load();
+            store.put("first", definition());
+            store.put("second", definition());
+            store.put("third", definition());
+        }
+        long size = Files.size(log);
+        // Flip a byte in the body of the second record
+        byte[] bytes = Files.readAllBytes(log);
+        int secondBody = recordEnd(bytes, Integer.BYTES) + 2 * Integer.BYTES + 4;
+        bytes[secondBody] ^= 0x7f;
+        Files.write(log, bytes);
+
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            assertEquals(List.of("first", "third"), List.copyOf(store.load().keySet()));
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    void findsTheNextRecordPastAnOversizedLength() throws IOException {
+        long size = writeThreeAndSetSecondLength(10_000);
+
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            assertEquals(List.of("first", "third"), List.copyOf(store.load().keySet()));
+        }
+        assertEquals(size, Files.size(log));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.anyMatch(file -> file.getFileName().toString().startsWith("custom-analyzers.log.corrupt-")));
+        }
+    }
+
+    @Test
+    void findsTheNextRecordPastAnUndersizedLength() throws IOException {
+        long size = writeThreeAndSetSecondLength(5);
+
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            assertEquals(List.of("first", "third"), List.copyOf(store.load().keySet()));
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    void truncatesATornRecordAtTheEnd() throws IOException {
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            store.load();
+            store.put("first", definition());
+        }
+        long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            // Header of a record whose body never made it to disk
+            channel.write(ByteBuffer.allocate(2 * Integer.BYTES + 3).putInt(0, 100).putInt(Integer.BYTES, 42));
+        }
+
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            assertEquals(List.of("first"), List.copyOf(store.load().keySet()));
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    void keepsAppendingWhenCompactionFails() throws IOException {
+        // A directory where the compacted file would go makes every compaction fail
+        Files.createDirectories(directory.resolve("custom-analyzers.log.compact/blocked"));
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            store.load();
+            for (int i = 0; i < 100; i++) {
+                store.put("replaced", definition());
+            }
+            store.put("last", definition());
+        }
+
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            Map<String, CustomAnalyzerDefinition> definitions = store.load();
+            assertEquals(List.of("replaced", "last"), List.copyOf(definitions.keySet()));
+        }
+    }
+
+    /**
+     * Store three definitions, then overwrite the length of the second record. Returns the size
+     * of the log.
+     */
+    private long writeThreeAndSetSecondLength(int length) throws IOException {
+        try (CustomAnalyzerStore store = new CustomAnalyzerStore(log)) {
+            store.load();
+            store.put("first", definition());
+            store.put("second", definition());
+            store.put("third", definition());
+        }
+        byte[] bytes = Files.readAllBytes(log);
+        ByteBuffer.wrap(bytes).putInt(recordEnd(bytes, Integer.BYTES), length);
+        Files.write(log, bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Offset just past the record starting at the given offset.
+     */
+    private static int recordEnd(byte[] bytes, int offset) {
+        return offset + 2 * Integer.BYTES + ByteBuffer.wrap(bytes, offset, Integer.BYTES).getInt();
+    }
+
+    private static CustomAnalyzerDefinition definition() throws IOException {
+        return new ObjectMapper().readValue("{\"tokenizer\":{\"type\":\"standard\"}}", CustomAnalyzerDefinition.class);
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("custom-analyzer-store");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledReuseStrategyTest {
+
+    private final PooledAnalyzer analyzer = new PooledAnalyzer(new WhitespaceAnalyzer(), new PooledReuseStrategy(2));
+
+    @Test
+    void returnsComponentsWhenTheStreamIsClosed() throws IOException {
+        TokenStream first = analyzer.tokenStream("field", "a b");
+        assertEquals(List.of("a", "b"), consume(first));
+        first.close();
+
+        TokenStream second = analyzer.tokenStream("field", "c");
+        assertSame(first, second);
+        assertEquals(List.of("c"), consume(second));
+        second.close();
+    }
+
+    @Test
+    void doesNotHandOutComponentsThatAreStillInUse() throws IOException {
+        TokenStream first = analyzer.tokenStream("field", "a");
+        TokenStream second = analyzer.tokenStream("field", "b");
+        assertNotSame(first, second);
+        first.close();
+        // Closing twice must not put the same components in the pool twice
+        first.close();
+
+        TokenStream third = analyzer.tokenStream("field", "c");
+        TokenStream fourth = analyzer.tokenStream("field", "d");
+        assertSame(first, third);
+        assertNotSame(third, fourth);
+        second.close();
+        third.close();
+        fourth.close();
+    }
+
+    @Test
+    void servesMoreConcurrentStreamsThanThePoolHolds() throws IOException {
+        List<TokenStream> streams = new ArrayList<>();
+        List<CharTermAttribute> terms = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TokenStream stream = analyzer.tokenStream("field", "s" + i + "a s" + i + "b");
+            stream.reset();
+            streams.add(stream);
+            terms.add(stream.getAttribute(CharTermAttribute.class));
+        }
+        assertEquals(5, identitySet(streams).size());
+
+        // Interleave the streams; none may see another's text
+        for (String suffix : List.of("a", "b")) {
+            for (int i = 0; i < streams.size(); i++) {
+                assertTrue(streams.get(i).incrementToken());
+                assertEquals("s" + i + suffix, terms.get(i).toString());
+            }
+        }
+        for (TokenStream stream : streams) {
+            assertFalse(stream.incrementToken());
+            stream.end();
+            stream.close();
+        }
+
+        // Only two of the five were kept
+        Set<TokenStream> closed = identitySet(streams);
+        List<TokenStream> next = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            next.add(analyzer.tokenStream("field", "x"));
+        }
+        assertEquals(2, next.stream().filter(closed::contains).count());
+        for (TokenStream stream : next) {
+            stream.close();
+        }
+    }
+
+    // Token streams compare by attribute state, so collect them by identity
+    private static Set<TokenStream> identitySet(List<TokenStream> streams) {
+        Set<TokenStream> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(streams);
+        return set;
+    }
+
+    private static List<String> consume(TokenStream stream) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+        stream.reset();
+        while (stream.incrementToken()) {
+            tokens.add(term.toString());
+        }
+        stream.end();
+        return tokens;
+    }
+}
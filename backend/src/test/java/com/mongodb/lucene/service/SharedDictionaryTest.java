@@ -0,0 +1,64 @@
+package com.mongodb.lucene.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedDictionaryTest {
+
+    @Test
+    void retriesALoadThatFailed() {
+        AtomicInteger loads = new AtomicInteger();
+        IOException failure = new IOException("missing dictionary");
+        SharedDictionary<String> dictionary = new SharedDictionary<>(() -> {
+            if (loads.incrementAndGet() == 1) {
+                throw failure;
+            }
+            return "loaded";
+        });
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, dictionary::get);
+        assertSame(failure, thrown.getCause());
+        assertFalse(dictionary.isLoaded());
+
+        assertEquals("loaded", dictionary.get());
+        assertTrue(dictionary.isLoaded());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadsOnceForConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SharedDictionary<String> dictionary = new SharedDictionary<>(() -> {
+            loads.incrementAndGet();
+            release.await();
+            return "loaded";
+        });
+
+        List<Future<String>> callers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 8; i++) {
+                callers.add(executor.submit(dictionary::get));
+            }
+            release.countDown();
+            for (Future<String> caller : callers) {
+                assertEquals("loaded", caller.get());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,101 @@
+package com.mongodb.lucene.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Test
+    void waitersComputeThemselvesWhenTheLeaderIsCancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = startLeader(release, new InterruptedIOException("cancelled"));
+        Future<String> waiter = startWaiter(() -> "waiter");
+
+        release.countDown();
+
+        assertSame(InterruptedIOException.class, causeOf(leader).getClass());
+        assertEquals("waiter", waiter.get());
+    }
+
+    @Test
+    void waitersShareTheLeadersFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IOException failure = new IOException("failed");
+        Future<String> leader = startLeader(release, failure);
+        Future<String> waiter = startWaiter(() -> "waiter");
+
+        release.countDown();
+
+        assertSame(failure, causeOf(leader));
+        assertSame(failure, causeOf(waiter));
+    }
+
+    @Test
+    void retriesAfterAFailureInsteadOfRememberingIt() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IOException.class, () -> flight.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IOException("failed");
+        }));
+
+        assertEquals("value", flight.execute("key", () -> {
+            calls.incrementAndGet();
+            return "value";
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    /**
+     * Start a caller that computes the key and fails with the given exception once released.
+     * Returns when its computation is running.
+     */
+    private Future<String> startLeader(CountDownLatch release, IOException failure) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        started.await();
+        return leader;
+    }
+
+    /**
+     * Start a caller for the same key and wait until it has joined the running computation.
+     */
+    private Future<String> startWaiter(SingleFlight.Computation<String> computation) throws InterruptedException {
+        long coalesced = flight.getCoalescedCount();
+        Future<String> waiter = executor.submit(() -> flight.execute("key", computation));
+        while (flight.getCoalescedCount() == coalesced) {
+            Thread.sleep(1);
+        }
+        return waiter;
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static Throwable causeOf(Future<?> future) throws InterruptedException {
+        return assertThrows(ExecutionException.class, future::get).getCause();
+    }
+}
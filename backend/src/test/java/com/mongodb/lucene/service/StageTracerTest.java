@@ -0,0 +1,68 @@
+package com.mongodb.lucene.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.lucene.model.TokenBuffer;
+import com.mongodb.lucene.model.TokenTrace;
+import com.mongodb.lucene.model.custom.CustomAnalyzerDefinition;
+import org.apache.lucene.analysis.Analyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StageTracerTest {
+
+    private static final String TEXT = "<p>Caf&eacute; <b>Owner</b></p>";
+
+    @Test
+    void mapsFilteredOffsetsBackThroughHtmlStrip() throws IOException {
+        TokenTrace trace = trace("{\"charFilters\":[{\"type\":\"htmlStrip\"}],"
+            + "\"tokenizer\":{\"type\":\"standard\"},\"tokenFilters\":[{\"type\":\"lowercase\"}]}");
+
+        assertEquals("\nCaf\u00e9 Owner\n", trace.getFilteredText());
+        // Shifts change after <p>, &eacute;, <b>, </b> and </p>
+        assertEquals(List.of(1, 5, 6, 11, 12), list(trace.getFilteredOffsets()));
+        assertEquals(List.of(3, 14, 18, 27, 31), list(trace.getOriginalOffsets()));
+
+        TokenBuffer tokens = trace.getTokens();
+        assertEquals(List.of("standard", "lowercase"), trace.getStages());
+        assertEquals(List.of(0, 1, 0, 1), list(trace.getTokenStages()));
+        assertEquals(List.of("Caf\u00e9", "caf\u00e9", "Owner", "owner"),
+            List.of(tokens.term(0), tokens.term(1), tokens.term(2), tokens.term(3)));
+        for (int i = 0; i < tokens.size(); i++) {
+            // Token offsets are original offsets; the mapping takes the filtered ones there too
+            String term = tokens.term(trace.getTokenStages()[i] == 0 ? i : i - 1);
+            int filteredStart = trace.getFilteredText().indexOf(term);
+            assertEquals(toOriginal(trace, filteredStart), tokens.startOffset(i));
+            assertEquals(toOriginal(trace, filteredStart + term.length()), tokens.endOffset(i));
+        }
+        assertEquals("Caf&eacute;", TEXT.substring(tokens.startOffset(0), tokens.endOffset(0)));
+    }
+
+    /**
+     * Original offset of a filtered offset, read from the trace's mapping.
+     */
+    private static int toOriginal(TokenTrace trace, int filteredOffset) {
+        int[] filtered = trace.getFilteredOffsets();
+        int[] original = trace.getOriginalOffsets();
+        int shift = 0;
+        for (int i = 0; i < filtered.length && filtered[i] <= filteredOffset; i++) {
+            shift = original[i] - filtered[i];
+        }
+        return filteredOffset + shift;
+    }
+
+    private static List<Integer> list(int[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+
+    private static TokenTrace trace(String definition) throws IOException {
+        CustomAnalyzerDefinition parsed = new ObjectMapper().readValue(definition, CustomAnalyzerDefinition.class);
+        try (Analyzer analyzer = CustomAnalyzerFactory.build(parsed)) {
+            return CustomAnalyzerFactory.trace(analyzer, TEXT);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mongodb.lucene.service;
+
+import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TermMatcherTest {
+
+    private final AnalyzedText index = tokenize("quick quiet quack brown fox foxes box");
+
+    @Test
+    void matchesExactTermsOnBothSides() {
+        AnalyzedText query = tokenize("fox cat");
+
+        TermMatcher.Match match = TermMatcher.match(index, query);
+
+        assertTrue(match.isIndexMatched(index.findTerm(new BytesRef("fox"))));
+        assertEquals(1, match.getIndexMatched().cardinality());
+        assertTrue(match.isQueryMatched(0));
+        assertFalse(match.isQueryMatched(1));
+    }
+
+    @Test
+    void expandsPrefixes() throws IOException {
+        assertEquals(Map.of("qui", List.of("quick", "quiet")), expand(MatchMode.PREFIX, "qui"));
+    }
+
+    @Test
+    void expandsWildcards() throws IOException {
+        assertEquals(Map.of("qu?ck", List.of("quack", "quick")), expand(MatchMode.WILDCARD, "qu?ck"));
+        assertEquals(Map.of("*ox*", List.of("box", "fox", "foxes")), expand(MatchMode.WILDCARD, "*ox*"));
+    }
+
+    @Test
+    void expandsRegularExpressions() throws IOException {
+        assertEquals(Map.of("[bf]ox", List.of("box", "fox")), expand(MatchMode.REGEX, "[bf]ox"));
+    }
+
+    @Test
+    void expandsFuzzyTermsWithinTheEditDistance() throws IOException {
+        assertEquals(Map.of("fix", List.of("box", "fox")), expand(MatchMode.FUZZY, 2, "fix"));
+        assertEquals(Map.of("fix", List.of("fox")), expand(MatchMode.FUZZY, 1, "fix"));
+        assertThrows(IllegalArgumentException.class, () -> expand(MatchMode.FUZZY, 3, "fix"));
+    }
+
+    @Test
+    void marksOnlyPatternsThatMatched() throws IOException {
+        TermMatcher.PatternMatch match = TermMatcher.matchPatterns(index, List.of("qua", "zz"), MatchMode.PREFIX, 0);
+
+        assertTrue(match.isPatternMatched(0));
+        assertFalse(match.isPatternMatched(1));
+        assertEquals(List.of(), match.getExpansions().get("zz"));
+        assertEquals(1, match.getIndexMatched().cardinality());
+    }
+
+    private Map<String, List<String>> expand(MatchMode mode, String pattern) throws IOException {
+        return expand(mode, 0, pattern);
+    }
+
+    private Map<String, List<String>> expand(MatchMode mode, int maxEdits, String pattern) throws IOException {
+        return TermMatcher.matchPatterns(index, List.of(pattern), mode, maxEdits).getExpansions();
+    }
+
+    private static AnalyzedText tokenize(String text) {
+        try {
+            return AnalyzerService.tokenize(new WhitespaceAnalyzer(), text, true);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
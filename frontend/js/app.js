@@ -45,6 +45,7 @@ function populateAnalyzerSelects() {
     // Group analyzers by category
     const baseAnalyzers = analyzers.filter(a => a.category === 'base');
     const languageAnalyzers = analyzers.filter(a => a.category === 'language');
+    const customAnalyzers = analyzers.filter(a => a.category === 'custom');
     
     // Add base analyzers
     baseAnalyzers.forEach(analyzer => {
@@ -68,6 +69,22 @@ function populateAnalyzerSelects() {
         querySelect.appendChild(queryGroup);
     }
     
+    // Add registered custom analyzers group
+    if (customAnalyzers.length > 0) {
+        const indexGroup = document.createElement('optgroup');
+        indexGroup.label = 'Registered Custom Analyzers';
+        const queryGroup = document.createElement('optgroup');
+        queryGroup.label = 'Registered Custom Analyzers';
+        
+        customAnalyzers.forEach(analyzer => {
+            addOptionToSelect(indexGroup, analyzer);
+            addOptionToSelect(queryGroup, analyzer);
+        });
+        
+        indexSelect.appendChild(indexGroup);
+        querySelect.appendChild(queryGroup);
+    }
+    
     // Set default selections
     indexSelect.value = 'lucene.standard';
     querySelect.value = 'lucene.standard';